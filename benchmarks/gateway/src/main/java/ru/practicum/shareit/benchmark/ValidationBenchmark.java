@@ -0,0 +1,116 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingValidation;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemValidation;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserValidation;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверки тел запросов в gateway: корректные данные и отказ с ValidationException
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final int BATCH_SIZE = 20;
+
+    private final BookingValidation bookingValidation = new BookingValidation();
+    private final ItemValidation itemValidation = new ItemValidation();
+    private final UserValidation userValidation = new UserValidation();
+
+    private NewBookingDto booking;
+    private NewBookingDto invalidBooking;
+    private List<NewBookingDto> bookings;
+    private ItemDto item;
+    private CommentDto comment;
+    private UserDto user;
+    private UserDto invalidUser;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        // бронирования начинаются через день, чтобы не устареть за время измерения
+        booking = new NewBookingDto(1, now.plusDays(1), now.plusDays(2));
+        invalidBooking = new NewBookingDto(1, now.plusDays(2), now.plusDays(1));
+        bookings = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            bookings.add(new NewBookingDto(i, now.plusDays(1), now.plusDays(2)));
+        }
+        item = new ItemDto(0, "Дрель", "Простая дрель", true, 1, null);
+        comment = new CommentDto(0, "Отличная дрель", "user");
+        user = new UserDto(0, "user", "user@gmail.com");
+        invalidUser = new UserDto(0, "user", "user.gmail.com");
+    }
+
+    @Benchmark
+    public NewBookingDto validateBooking() {
+        bookingValidation.validate(booking);
+        return booking;
+    }
+
+    @Benchmark
+    public ValidationException rejectBooking() {
+        try {
+            bookingValidation.validate(invalidBooking);
+            return null;
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public List<NewBookingDto> validateBookingBatch() {
+        bookingValidation.validate(bookings);
+        return bookings;
+    }
+
+    @Benchmark
+    public ItemDto validateItem() {
+        itemValidation.validate(item);
+        return item;
+    }
+
+    @Benchmark
+    public CommentDto validateComment() {
+        itemValidation.validate(comment);
+        return comment;
+    }
+
+    @Benchmark
+    public UserDto validateUser() {
+        userValidation.validate(user);
+        return user;
+    }
+
+    @Benchmark
+    public ValidationException rejectUser() {
+        try {
+            userValidation.validate(invalidUser);
+            return null;
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пакетная вставка бронирований со встроенной базой H2: через сервис, где id выделяются блоками
+ * последовательности, и SQL-вставкой в обход приложения, где id берется из значения столбца по умолчанию.
+ * Результат - число вставленных строк в секунду. Каждый пакет бронирует следующий час для всех предметов,
+ * поэтому интервалы не пересекаются. Параметр batchSize задает hibernate.jdbc.batch_size: при 0 Hibernate
+ * отправляет каждую вставку отдельно, как с генератором IDENTITY, это базовый вариант для сравнения
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+    private static final int BATCH = 100;
+    private static final String INSERT_BOOKING = "INSERT INTO bookings "
+            + "(start_date_time, end_date_time, item_id, booker_id, status, state) VALUES (?, ?, ?, ?, 'APPROVED', 'FUTURE')";
+
+    @Param({"50", "0"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private JdbcTemplate jdbcTemplate;
+
+    private long bookerId;
+    private final List<Long> itemIds = new ArrayList<>();
+    private LocalDateTime start;
+    private long batches;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.url=jdbc:h2:mem:bulk-insert",
+                        "--spring.datasource.username=benchmark",
+                        "--spring.datasource.password=benchmark",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        UserService userService = context.getBean(UserService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        long ownerId = userService.addNewUser(new UserDto(0, "owner", "owner@gmail.com")).getId();
+        bookerId = userService.addNewUser(new UserDto(0, "booker", "booker@gmail.com")).getId();
+        for (int i = 0; i < BATCH; i++) {
+            itemIds.add(itemService.addNewItem(ownerId,
+                    new ItemDto(0, "Дрель " + i, "Аккумуляторная дрель номер " + i, true, ownerId, null)).getId());
+        }
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<BookingDto> insertThroughService() {
+        LocalDateTime slot = nextSlot();
+        List<NewBookingDto> bookings = new ArrayList<>(BATCH);
+        for (Long itemId : itemIds) {
+            bookings.add(new NewBookingDto(0, itemId, slot, slot.plusHours(1)));
+        }
+        return bookingService.addNewBookings(bookerId, bookings);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] insertWithColumnDefault() {
+        LocalDateTime slot = nextSlot();
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (Long itemId : itemIds) {
+            rows.add(new Object[]{Timestamp.valueOf(slot), Timestamp.valueOf(slot.plusHours(1)), itemId, bookerId});
+        }
+        return jdbcTemplate.batchUpdate(INSERT_BOOKING, rows);
+    }
+
+    private LocalDateTime nextSlot() {
+        return start.plusHours(batches++);
+    }
+}
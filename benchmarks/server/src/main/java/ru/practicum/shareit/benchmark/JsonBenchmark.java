@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.LastNextBookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов и разбор тел запросов тем же ObjectMapper, что настраивает Spring Boot.
+ * BookingDto сервер только отдает, а бронирование принимает в виде NewBookingDto
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectWriter bookingWriter;
+    private ObjectWriter bookingPageWriter;
+    private ObjectWriter itemOwnerWriter;
+    private ObjectReader newBookingReader;
+    private ObjectReader itemOwnerReader;
+
+    private BookingDto bookingDto;
+    private List<BookingDto> bookingPage;
+    private ItemOwnerDto itemOwnerDto;
+    private String newBookingJson;
+    private String itemOwnerJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        bookingWriter = mapper.writerFor(BookingDto.class);
+        bookingPageWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class,
+                BookingDto.class));
+        itemOwnerWriter = mapper.writerFor(ItemOwnerDto.class);
+        newBookingReader = mapper.readerFor(NewBookingDto.class);
+        itemOwnerReader = mapper.readerFor(ItemOwnerDto.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        User user = User.builder().id(1).name("user").email("user@gmail.com").build();
+        Item item = Item.builder().id(1).name("Дрель").description("Простая дрель").available(true).owner(user)
+                .build();
+        Booking booking = Booking.builder().id(1).item(item).booker(user).start(now.plusDays(1))
+                .end(now.plusDays(2)).status(Status.APPROVED).build();
+        bookingDto = BookingMapper.toBookingDto(booking);
+        bookingPage = new ArrayList<>();
+        List<CommentDto> comments = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            bookingPage.add(BookingMapper.toBookingDto(booking.toBuilder().id(i).build()));
+            comments.add(new CommentDto(i, "Отличная дрель", "user", now));
+        }
+        itemOwnerDto = ItemMapper.toItemOwnerDto(item, comments, new LastNextBookingDto(1, 1),
+                new LastNextBookingDto(2, 1));
+
+        newBookingJson = mapper.writeValueAsString(new NewBookingDto(0, 1, now.plusDays(1), now.plusDays(2)));
+        itemOwnerJson = itemOwnerWriter.writeValueAsString(itemOwnerDto);
+    }
+
+    @Benchmark
+    public String writeBooking() throws JsonProcessingException {
+        return bookingWriter.writeValueAsString(bookingDto);
+    }
+
+    @Benchmark
+    public String writeBookingPage() throws JsonProcessingException {
+        return bookingPageWriter.writeValueAsString(bookingPage);
+    }
+
+    @Benchmark
+    public NewBookingDto readNewBooking() throws JsonProcessingException {
+        return newBookingReader.readValue(newBookingJson);
+    }
+
+    @Benchmark
+    public String writeItemOwner() throws JsonProcessingException {
+        return itemOwnerWriter.writeValueAsString(itemOwnerDto);
+    }
+
+    @Benchmark
+    public ItemOwnerDto readItemOwner() throws JsonProcessingException {
+        return itemOwnerReader.readValue(itemOwnerJson);
+    }
+}
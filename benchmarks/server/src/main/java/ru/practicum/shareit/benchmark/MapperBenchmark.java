@@ -0,0 +1,170 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.LastNextBookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.dto.UpdateBookingDto;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.ItemRequestMapper;
+import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования сущностей в dto и обратно. Списки размером со страницу по умолчанию
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private User user;
+    private Item item;
+    private Booking booking;
+    private Comment comment;
+    private ItemRequest itemRequest;
+    private NewBookingDto newBookingDto;
+    private ItemDto itemDto;
+    private CommentDto commentDto;
+    private ItemRequestDto itemRequestDto;
+    private List<CommentDto> commentDtos;
+    private List<ItemDto> itemDtos;
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<Comment> comments;
+    private LastNextBookingDto lastBooking;
+    private LastNextBookingDto nextBooking;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = User.builder().id(1).name("user").email("user@gmail.com").build();
+        item = Item.builder().id(1).name("Дрель").description("Простая дрель").available(true).owner(user)
+                .requestId(1L).build();
+        booking = Booking.builder().id(1).item(item).booker(user).start(now.plusDays(1)).end(now.plusDays(2))
+                .status(Status.APPROVED).build();
+        comment = new Comment(1, "Отличная дрель", item, user, now);
+        itemRequest = new ItemRequest();
+        itemRequest.setId(1);
+        itemRequest.setDescription("Нужна дрель");
+        itemRequest.setRequester(user);
+        itemRequest.setCreated(now);
+
+        newBookingDto = new NewBookingDto(0, 1, now.plusDays(1), now.plusDays(2));
+        itemDto = ItemMapper.toItemDto(item);
+        commentDto = CommentMapper.toCommentDto(comment);
+        itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
+        lastBooking = BookingMapper.toLastNextBookingDto(booking);
+        nextBooking = BookingMapper.toLastNextBookingDto(booking);
+
+        bookings = new ArrayList<>();
+        items = new ArrayList<>();
+        comments = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            bookings.add(booking.toBuilder().id(i).build());
+            items.add(item.toBuilder().id(i).build());
+            comments.add(new Comment(i, "Отличная дрель", item, user, now));
+        }
+        commentDtos = CommentMapper.toCommentDto(comments);
+        itemDtos = ItemMapper.toItemDto(items);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingPageToDto() {
+        return BookingMapper.toBookingDto(bookings);
+    }
+
+    @Benchmark
+    public UpdateBookingDto bookingToUpdateDto() {
+        return BookingMapper.toUpdateBookingDto(booking);
+    }
+
+    @Benchmark
+    public Booking bookingFromDto() {
+        return BookingMapper.toBooking(newBookingDto, user, item, Status.WAITING);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemPageToDto() {
+        return ItemMapper.toItemDto(items);
+    }
+
+    @Benchmark
+    public ItemOwnerDto itemToOwnerDto() {
+        return ItemMapper.toItemOwnerDto(item, commentDtos, lastBooking, nextBooking);
+    }
+
+    @Benchmark
+    public Item itemFromDto() {
+        return ItemMapper.toItem(itemDto, user);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public List<CommentDto> commentPageToDto() {
+        return CommentMapper.toCommentDto(comments);
+    }
+
+    @Benchmark
+    public Comment commentFromDto() {
+        return CommentMapper.toComment(commentDto, item, user);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestToDto() {
+        return ItemRequestMapper.toItemRequestDto(itemRequest);
+    }
+
+    @Benchmark
+    public ItemRequestWithAnswersDto itemRequestWithAnswersToDto() {
+        return ItemRequestMapper.toItemRequestDto(itemRequest, itemDtos);
+    }
+
+    @Benchmark
+    public ItemRequest itemRequestFromDto() {
+        return ItemRequestMapper.toItemRequest(user, itemRequestDto);
+    }
+}
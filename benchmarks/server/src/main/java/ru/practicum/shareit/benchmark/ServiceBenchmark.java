@@ -0,0 +1,148 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.requests.ItemRequestService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Методы сервисов с контекстом приложения и встроенной базой H2. Перед измерением создаются предметы
+ * владельца, запросы, прошедшие и будущие подтвержденные бронирования и отзывы
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int ITEMS = 100;
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long bookingId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "--spring.datasource.username=benchmark",
+                        "--spring.datasource.password=benchmark",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        userService = context.getBean(UserService.class);
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+
+        ownerId = userService.addNewUser(new UserDto(0, "owner", "owner@gmail.com")).getId();
+        bookerId = userService.addNewUser(new UserDto(0, "booker", "booker@gmail.com")).getId();
+        long requestId = itemRequestService.addNewItemRequest(bookerId,
+                new ItemRequestDto(0, "Нужна дрель", bookerId, LocalDateTime.now())).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<NewBookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = itemService.addNewItem(ownerId,
+                    new ItemDto(0, "Дрель " + i, "Аккумуляторная дрель номер " + i, true, ownerId,
+                            i % 10 == 0 ? requestId : null));
+            bookings.add(new NewBookingDto(0, item.getId(), now.minusDays(2), now.minusDays(1)));
+            bookings.add(new NewBookingDto(0, item.getId(), now.plusDays(1), now.plusDays(2)));
+        }
+        List<Long> bookingIds = bookingService.addNewBookings(bookerId, bookings).stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+        bookingService.updateBookings(ownerId, bookingIds, true);
+        itemId = bookings.get(0).getItemId();
+        bookingId = bookingIds.get(0);
+        itemService.addComment(bookerId, itemId, new CommentDto(0, "Отличная дрель", "booker", now));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto findUser() {
+        return userService.findById(bookerId);
+    }
+
+    @Benchmark
+    public ItemOwnerDto findItemByOwner() {
+        return itemService.findById(ownerId, itemId);
+    }
+
+    @Benchmark
+    public List<ItemOwnerDto> getOwnerItems() {
+        return itemService.getItems(ownerId, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchByDescription("аккумуляторная", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookingDto findBooking() {
+        return bookingService.findBooking(bookerId, bookingId);
+    }
+
+    @Benchmark
+    public List<BookingDto> getBookerBookings() {
+        return bookingService.getAllFromUser(bookerId, "ALL", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerFutureBookings() {
+        return bookingService.getAllForItems(ownerId, "FUTURE", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemRequestWithAnswersDto> getOwnRequests() {
+        return itemRequestService.getOwnRequests(bookerId);
+    }
+}
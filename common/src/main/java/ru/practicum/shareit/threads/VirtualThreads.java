@@ -0,0 +1,54 @@
+package ru.practicum.shareit.threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Виртуальные потоки JDK 21+. Проект собирается под Java 11, поэтому фабрика исполнителя
+ * вызывается через reflection
+ */
+public final class VirtualThreads {
+    private static final int MIN_FEATURE_VERSION = 21;
+    private static final Method NEW_EXECUTOR = findExecutorFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Доступны ли виртуальные потоки в текущей JVM
+     */
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Исполнитель, запускающий каждую задачу в новом виртуальном потоке
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("Виртуальные потоки доступны начиная с JDK " + MIN_FEATURE_VERSION
+                    + ", текущая версия " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Не удалось создать исполнитель на виртуальных потоках", e);
+        }
+    }
+
+    /**
+     * В JDK 19 и 20 метод есть, но без --enable-preview бросает исключение, поэтому проверяется и версия
+     */
+    private static Method findExecutorFactory() {
+        if (Runtime.version().feature() < MIN_FEATURE_VERSION) {
+            return null;
+        }
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+/**
+ * Режим виртуальных потоков, включается свойством spring.threads.virtual.enabled=true (профиль virtual).
+ * Запросы Tomcat и асинхронные ответы MVC сервера и gateway выполняются в виртуальных потоках, поэтому число
+ * одновременно обрабатываемых запросов ограничивает не пул потоков, а пул соединений: с базой у сервера
+ * и с shareit-server (shareit-server.http) у gateway при shareit-server.async=false. Требуется JDK 21+
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    /**
+     * Обработка запросов Tomcat в виртуальных потоках вместо пула server.tomcat.threads
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        log.info("Tomcat requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Исполнитель асинхронных ответов MVC, например StreamingResponseBody
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newVirtualThreadPerTaskExecutor());
+    }
+}
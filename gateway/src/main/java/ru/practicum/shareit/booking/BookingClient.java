@@ -4,56 +4,110 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Flux;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                         ResponseCache cache, @Value("${shareit-server.async}") boolean async) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                async ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                cache
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<byte[]>> getBookings(long userId, BookingState state, Integer from,
+                                                                 Integer size, LocalDateTime cursorStart,
+                                                                 Long cursorId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("", userId, parameters);
+        ));
+        String pathWithCursor = withCursor("?state={state}&from={from}&size={size}", parameters,
+                cursorStart, cursorId);
+        return getRawAsync(pathWithCursor, userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsForItems(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<byte[]>> getBookingsForItems(long userId, BookingState state, Integer from,
+                                                                         Integer size, LocalDateTime cursorStart,
+                                                                         Long cursorId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner", userId, parameters);
+        ));
+        String pathWithCursor = withCursor("/owner?state={state}&from={from}&size={size}", parameters,
+                cursorStart, cursorId);
+        return getRawAsync(pathWithCursor, userId, parameters);
+    }
+
+    public Flux<byte[]> streamBookings(long userId, BookingState state, int from, int size) {
+        return stream("?state={state}&from={from}&size={size}", userId,
+                Map.of("state", state.name(), "from", from, "size", size));
+    }
+
+    public Flux<byte[]> streamBookingsForItems(long userId, BookingState state, int from, int size) {
+        return stream("/owner?state={state}&from={from}&size={size}", userId,
+                Map.of("state", state.name(), "from", from, "size", size));
+    }
+
+    public Flux<byte[]> exportBookings(long userId, BookingState state) {
+        return stream("/export?state={state}", userId, Map.of("state", state.name()));
+    }
+
+    public Flux<byte[]> exportBookingsForItems(long userId, BookingState state) {
+        return stream("/owner/export?state={state}", userId, Map.of("state", state.name()));
+    }
+
+    private String withCursor(String path, Map<String, Object> parameters, LocalDateTime cursorStart, Long cursorId) {
+        if (cursorId == null) {
+            return path;
+        }
+        parameters.put("cursorStart", cursorStart);
+        parameters.put("cursorId", cursorId);
+        return path + "&cursorStart={cursorStart}&cursorId={cursorId}";
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> bookItem(long userId, NewBookingDto requestDto) {
+        return postAsync("", userId, requestDto);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
+        return getAsync("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> bookItem(long userId, NewBookingDto requestDto) {
-        return post("", userId, requestDto);
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, Long bookingId, Boolean approved) {
+        return patchAsync("/" + bookingId + "?approved={approved}", userId, Map.of("approved", approved), null);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public CompletableFuture<ResponseEntity<Object>> bookItems(long userId, List<NewBookingDto> requestDtos) {
+        return postAsync("/batch", userId, requestDtos);
     }
 
-    public ResponseEntity<Object> update(long userId, Long bookingId, Boolean approved) {
-        return patch("/" + bookingId, userId, approved);
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, List<Long> bookingIds, Boolean approved) {
+        return patchAsync("/batch?approved={approved}", userId, Map.of("approved", approved), bookingIds);
     }
 }
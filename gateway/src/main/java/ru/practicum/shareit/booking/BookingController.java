@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +11,9 @@ import ru.practicum.shareit.booking.dto.NewBookingDto;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/bookings")
@@ -23,48 +27,74 @@ public class BookingController {
     private final BookingValidation validation;
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(@RequestHeader(HEADER) long userId,
-                                             @RequestBody NewBookingDto newBookingDto) {
+    public CompletableFuture<ResponseEntity<Object>> addBooking(@RequestHeader(HEADER) long userId,
+                                                                @RequestBody NewBookingDto newBookingDto) {
         log.info("GATEWAY: Creating booking {}, userId={}", newBookingDto, userId);
         validation.validate(newBookingDto);
         return bookingClient.bookItem(userId, newBookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> update(@RequestHeader(HEADER) long userId,
-                                         @RequestParam Boolean approved, @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> update(@RequestHeader(HEADER) long userId,
+                                                            @RequestParam Boolean approved,
+                                                            @PathVariable Long bookingId) {
         log.info("GATEWAY: Patch booking {}, userId={}, approved={}", bookingId, userId, approved);
         validation.validate(approved);
         return bookingClient.update(userId, bookingId, approved);
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> addBookings(@RequestHeader(HEADER) long userId,
+                                                                 @RequestBody List<NewBookingDto> newBookingDtos) {
+        log.info("GATEWAY: Creating {} bookings, userId={}", newBookingDtos.size(), userId);
+        validation.validate(newBookingDtos);
+        return bookingClient.bookItems(userId, newBookingDtos);
+    }
+
+    @PatchMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> update(@RequestHeader(HEADER) long userId,
+                                                            @RequestParam Boolean approved,
+                                                            @RequestBody List<Long> bookingIds) {
+        log.info("GATEWAY: Patch bookings {}, userId={}, approved={}", bookingIds, userId, approved);
+        validation.validate(approved);
+        return bookingClient.update(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(HEADER) long userId,
-                                             @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader(HEADER) long userId,
+                                                                @PathVariable Long bookingId) {
         log.info("GATEWAY: Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(HEADER) long userId,
+    public CompletableFuture<ResponseEntity<byte[]>> getBookings(@RequestHeader(HEADER) long userId,
                                           @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                          @RequestParam(name = "cursorStart", required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+                                          @RequestParam(name = "cursorId", required = false) Long cursorId) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("GATEWAY: Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        validation.validate(cursorStart, cursorId);
+        return bookingClient.getBookings(userId, state, from, size, cursorStart, cursorId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsForItems(@RequestHeader(HEADER) long userId,
+    public CompletableFuture<ResponseEntity<byte[]>> getBookingsForItems(@RequestHeader(HEADER) long userId,
                                           @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                          @RequestParam(name = "cursorStart", required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+                                          @RequestParam(name = "cursorId", required = false) Long cursorId) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("GATEWAY: Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookingsForItems(userId, state, from, size);
+        validation.validate(cursorStart, cursorId);
+        return bookingClient.getBookingsForItems(userId, state, from, size, cursorStart, cursorId);
     }
 
 }
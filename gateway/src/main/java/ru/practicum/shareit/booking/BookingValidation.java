@@ -1,22 +1,35 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.exception.ValidationException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+@Component
 public class BookingValidation {
 
     /**
      * Проверка времени начала и окончания бронирования
      */
     public void validate(NewBookingDto dto) {
-        if (dto.getEnd().isBefore(dto.getStart()) || dto.getStart().isBefore(LocalDateTime.now()) ||
+        if (!dto.getEnd().isAfter(dto.getStart()) || dto.getStart().isBefore(LocalDateTime.now()) ||
                 dto.getEnd().isBefore(LocalDateTime.now())) {
             throw new ValidationException("Время начала позже времени окончания!");
         }
     }
 
+    /**
+     * Проверка пакета бронирований: пакет не пустой и время каждого бронирования корректно
+     */
+    public void validate(List<NewBookingDto> dtos) {
+        if (dtos.isEmpty()) {
+            throw new ValidationException("Список бронирований не может быть пустым!");
+        }
+        dtos.forEach(this::validate);
+    }
+
     /**
      * Проверка значения approved
      */
@@ -25,4 +38,13 @@ public class BookingValidation {
             throw new ValidationException("Approved не может быть пустым!");
         }
     }
+
+    /**
+     * Проверка курсора: start и id последнего полученного бронирования передаются вместе
+     */
+    public void validate(LocalDateTime cursorStart, Long cursorId) {
+        if ((cursorStart == null) != (cursorId == null)) {
+            throw new ValidationException("Курсор должен содержать cursorStart и cursorId");
+        }
+    }
 }
@@ -1,22 +1,53 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
 
 public class BaseClient {
+    private static final int STREAM_CHUNK_SIZE = 8192;
+
     protected final RestTemplate rest;
+    @Nullable
+    protected final WebClient web;
+    @Nullable
+    private final ResponseCache cache;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null);
+    }
+
+    /**
+     * @param rest блокирующий клиент
+     * @param web неблокирующий клиент для методов *Async; если не задан, они выполняются через rest
+     * @param cache кэш ответов для методов getRaw; если не задан, каждый запрос уходит на сервер
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient web, @Nullable ResponseCache cache) {
         this.rest = rest;
+        this.web = web;
+        this.cache = cache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -31,6 +62,14 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * GET-запрос, тело ответа которого передается клиенту как есть, без разбора JSON
+     */
+    protected ResponseEntity<byte[]> getRaw(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return cached(path, userId, parameters,
+                etag -> CompletableFuture.completedFuture(exchangeRaw(path, userId, parameters, etag))).join();
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -79,6 +118,138 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected CompletableFuture<ResponseEntity<Object>> getAsync(String path) {
+        return getAsync(path, null, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> getAsync(String path, long userId) {
+        return getAsync(path, userId, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> getAsync(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequestAsync(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<byte[]>> getRawAsync(String path) {
+        return getRawAsync(path, null, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<byte[]>> getRawAsync(String path, long userId) {
+        return getRawAsync(path, userId, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<byte[]>> getRawAsync(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        if (web == null) {
+            return CompletableFuture.completedFuture(getRaw(path, userId, parameters));
+        }
+        return cached(path, userId, parameters, etag -> exchangeRawAsync(path, userId, parameters, etag));
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> postAsync(String path, T body) {
+        return postAsync(path, null, null, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> postAsync(String path, long userId, T body) {
+        return postAsync(path, userId, null, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> postAsync(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequestAsync(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> putAsync(String path, long userId, T body) {
+        return putAsync(path, userId, null, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> putAsync(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequestAsync(HttpMethod.PUT, path, userId, parameters, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> patchAsync(String path, T body) {
+        return patchAsync(path, null, null, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> patchAsync(String path, long userId, T body) {
+        return patchAsync(path, userId, null, body);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> patchAsync(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequestAsync(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> deleteAsync(String path) {
+        return deleteAsync(path, null, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> deleteAsync(String path, long userId) {
+        return deleteAsync(path, userId, null);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> deleteAsync(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequestAsync(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    /**
+     * Потоковая передача NDJSON-ответа shareit-server без буферизации тела в памяти gateway. Части тела
+     * читаются у сервера по мере того, как подписчик их запрашивает; ответ сервера с ошибкой завершает
+     * поток исключением с его статусом и телом
+     */
+    protected Flux<byte[]> stream(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        if (web != null) {
+            return web.get()
+                    .uri(path, parameters != null ? parameters : Map.of())
+                    .headers(requestHeaders -> requestHeaders.addAll(headers))
+                    .exchangeToFlux(response -> response.statusCode().is2xxSuccessful()
+                            ? response.bodyToFlux(DataBuffer.class).map(BaseClient::toBytes)
+                            : response.createException().flatMapMany(Flux::error));
+        }
+        return Flux.using(() -> openStream(path, headers, parameters),
+                        response -> Flux.<byte[]>generate(sink -> readChunk(response, sink)),
+                        ClientHttpResponse::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private ClientHttpResponse openStream(String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> parameters) throws IOException {
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri(path, parameters), HttpMethod.GET);
+        request.getHeaders().addAll(headers);
+        ClientHttpResponse response = request.execute();
+        if (rest.getErrorHandler().hasError(response)) {
+            try {
+                rest.getErrorHandler().handleError(response);
+            } finally {
+                response.close();
+            }
+        }
+        return response;
+    }
+
+    private static void readChunk(ClientHttpResponse response, SynchronousSink<byte[]> sink) {
+        byte[] buffer = new byte[STREAM_CHUNK_SIZE];
+        try {
+            int read = response.getBody().read(buffer);
+            if (read < 0) {
+                sink.complete();
+            } else {
+                sink.next(Arrays.copyOf(buffer, read));
+            }
+        } catch (IOException e) {
+            sink.error(e);
+        }
+    }
+
+    private static byte[] toBytes(DataBuffer dataBuffer) {
+        try {
+            byte[] bytes = new byte[dataBuffer.readableByteCount()];
+            dataBuffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(dataBuffer);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -91,10 +262,84 @@ public class BaseClient {
             }
         } catch (HttpStatusCodeException e) {
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        } finally {
+            invalidateAfter(method, path, parameters);
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequestAsync(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (web == null) {
+            return CompletableFuture.completedFuture(makeAndSendRequest(method, path, userId, parameters, body));
+        }
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(response -> {
+            if (response.statusCode().is2xxSuccessful()) {
+                return response.toEntity(Object.class).map(BaseClient::withoutFramingHeaders);
+            }
+            return response.bodyToMono(byte[].class)
+                    .map(bytes -> ResponseEntity.status(response.statusCode()).<Object>body(bytes))
+                    .defaultIfEmpty(ResponseEntity.status(response.statusCode()).build());
+        }).toFuture().whenComplete((response, e) -> invalidateAfter(method, path, parameters));
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> cached(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                             Function<String, CompletableFuture<ResponseEntity<byte[]>>> exchange) {
+        if (cache == null) {
+            return exchange.apply(null);
+        }
+        return cache.get(uri(path, parameters), userId, exchange);
+    }
+
+    private ResponseEntity<byte[]> exchangeRaw(String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable String etag) {
+        HttpEntity<Void> requestEntity = new HttpEntity<>(rawHeaders(userId, etag));
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, HttpMethod.GET, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, HttpMethod.GET, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return passthrough(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+        return passthrough(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> exchangeRawAsync(String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable String etag) {
+        return web.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(rawHeaders(userId, etag)))
+                .exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> passthrough(response.getStatusCode(), response.getHeaders(), response.getBody()))
+                .toFuture();
+    }
+
+    /**
+     * Запись через gateway сбрасывает закэшированные ответы затронутых ресурсов
+     */
+    private void invalidateAfter(HttpMethod method, String path, @Nullable Map<String, Object> parameters) {
+        if (cache != null && method != HttpMethod.GET) {
+            cache.invalidate(uri(path, parameters));
+        }
+    }
+
+    private URI uri(String path, @Nullable Map<String, Object> parameters) {
+        return rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+    }
+
+    private HttpHeaders rawHeaders(Long userId, @Nullable String etag) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        return headers;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -105,6 +350,32 @@ public class BaseClient {
         return headers;
     }
 
+    /**
+     * Тело ответа сериализуется заново, поэтому длина и кодирование передачи от shareit-server не переносятся
+     */
+    private static ResponseEntity<Object> withoutFramingHeaders(ResponseEntity<Object> response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    /**
+     * Ответ с исходными статусом, типом содержимого, ETag и байтами тела shareit-server
+     */
+    private static ResponseEntity<byte[]> passthrough(HttpStatus status, @Nullable HttpHeaders headers,
+                                                      @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (headers != null && headers.getContentType() != null) {
+            responseBuilder.contentType(headers.getContentType());
+        }
+        if (headers != null && headers.getETag() != null) {
+            responseBuilder.eTag(headers.getETag());
+        }
+        return body != null ? responseBuilder.body(body) : responseBuilder.build();
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompletedFutureConfig {
+
+    /**
+     * Обработчик завершенных future ставится перед стандартными, которые разбирают CompletableFuture
+     * как асинхронный ответ
+     */
+    @Bean
+    public static BeanPostProcessor completedFutureReturnValueHandlerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RequestMappingHandlerAdapter) {
+                    RequestMappingHandlerAdapter adapter = (RequestMappingHandlerAdapter) bean;
+                    List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(adapter.getReturnValueHandlers());
+                    HandlerMethodReturnValueHandlerComposite delegate = new HandlerMethodReturnValueHandlerComposite()
+                            .addHandlers(handlers);
+                    handlers.add(0, new CompletedFutureReturnValueHandler(delegate));
+                    adapter.setReturnValueHandlers(handlers);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Уже завершенный CompletableFuture контроллера обрабатывается как обычный ответ в том же потоке. При
+ * shareit-server.async=false клиенты возвращают завершенные future, и асинхронная обработка MVC с повторной
+ * диспетчеризацией запроса ничего не дает. Незавершенные и завершенные с ошибкой future обрабатываются
+ * стандартными обработчиками
+ */
+public class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandlerComposite delegate;
+
+    public CompletedFutureReturnValueHandler(HandlerMethodReturnValueHandlerComposite delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        CompletableFuture<?> future = (CompletableFuture<?>) returnValue;
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+        Object result = future.join();
+        if (result == null) {
+            mavContainer.setRequestHandled(true);
+            return;
+        }
+        delegate.handleReturnValue(result, new ResultMethodParameter(returnType), mavContainer, webRequest);
+    }
+
+    /**
+     * Тип возвращаемого значения метода контроллера с типом результата future вместо самого future
+     */
+    private static class ResultMethodParameter extends MethodParameter {
+        private final ResolvableType resultType;
+
+        ResultMethodParameter(MethodParameter returnType) {
+            super(returnType);
+            this.resultType = ResolvableType.forMethodParameter(returnType).getGeneric();
+        }
+
+        private ResultMethodParameter(ResultMethodParameter original) {
+            super(original);
+            this.resultType = original.resultType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return resultType.toClass();
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return resultType.getType();
+        }
+
+        @Override
+        public ResultMethodParameter clone() {
+            return new ResultMethodParameter(this);
+        }
+    }
+}
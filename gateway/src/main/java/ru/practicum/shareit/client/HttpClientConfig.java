@@ -0,0 +1,140 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.actuate.metrics.web.client.RestTemplateExchangeTags;
+import org.springframework.boot.actuate.metrics.web.client.RestTemplateExchangeTagsProvider;
+import org.springframework.boot.actuate.metrics.web.reactive.client.WebClientExchangeTags;
+import org.springframework.boot.actuate.metrics.web.reactive.client.WebClientExchangeTagsProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Общий пул соединений с shareit-server для всех клиентов gateway
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager();
+        manager.setMaxTotal(properties.getMaxTotal());
+        manager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        manager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return manager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerHttpClient(PoolingHttpClientConnectionManager manager,
+                                                       HttpClientProperties properties) {
+        long keepAlive = properties.getKeepAlive().toMillis();
+        return HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                        .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                        .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient shareitServerHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient);
+    }
+
+    @Bean
+    public MeterBinder shareitServerConnectionPoolMetrics(PoolingHttpClientConnectionManager manager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(manager, POOL_NAME);
+    }
+
+    /**
+     * Пул соединений неблокирующего клиента с теми же ограничениями, закрывается вместе с контекстом
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .evictInBackground(properties.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Те же таймауты для неблокирующего клиента
+     */
+    @Bean
+    public WebClientCustomizer shareitServerWebClientCustomizer(ConnectionProvider shareitServerConnectionProvider,
+                                                                HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    /**
+     * Теги http.client.requests для блокирующего клиента. Тег uri строится по полному пути запроса,
+     * а не по шаблону, в который BaseClient подставляет id конкатенацией
+     */
+    @Bean
+    public RestTemplateExchangeTagsProvider shareitServerRestTemplateTags() {
+        return (urlTemplate, request, response) -> Tags.of(
+                RestTemplateExchangeTags.method(request),
+                uri(request.getURI()),
+                RestTemplateExchangeTags.status(response),
+                RestTemplateExchangeTags.clientName(request),
+                RestTemplateExchangeTags.outcome(response));
+    }
+
+    /**
+     * Теги http.client.requests для неблокирующего клиента, uri строится так же
+     */
+    @Bean
+    public WebClientExchangeTagsProvider shareitServerWebClientTags() {
+        return (request, response, throwable) -> Tags.of(
+                WebClientExchangeTags.method(request),
+                uri(request.url()),
+                WebClientExchangeTags.status(response, throwable),
+                WebClientExchangeTags.clientName(request),
+                WebClientExchangeTags.outcome(response));
+    }
+
+    /**
+     * Путь запроса без строки запроса, числовые сегменты заменены на {id}: /bookings/42 -> /bookings/{id}
+     */
+    static Tag uri(URI uri) {
+        String path = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+        return Tag.of("uri", ID_SEGMENT.matcher(path).replaceAll("/{id}"));
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула соединений gateway с shareit-server
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    /**
+     * Максимальное число соединений в пуле
+     */
+    private int maxTotal = 200;
+    /**
+     * Максимальное число соединений к одному хосту
+     */
+    private int maxPerRoute = 200;
+    /**
+     * Время ожидания установки соединения
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * Время ожидания ответа
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+    /**
+     * Время ожидания свободного соединения из пула
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    /**
+     * Время жизни простаивающего соединения, если сервер не указал свое в заголовке Keep-Alive
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+    /**
+     * Простаивающие дольше соединения закрываются фоновым потоком
+     */
+    private Duration idleEviction = Duration.ofSeconds(30);
+    /**
+     * Соединение проверяется перед выдачей из пула, если простаивало дольше
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш ответов shareit-server на GET-запросы. Ключ - полный URI запроса и пользователь из X-Sharer-User-Id.
+ * Пока ответ свежий, он отдается без запроса к серверу, после истечения срока жизни перепроверяется
+ * запросом с If-None-Match. Запись через gateway увеличивает поколение измененного ресурса и ресурсов,
+ * в ответах которых он участвует, ответы предыдущих поколений считаются отсутствующими и вытесняются из кэша
+ * по времени последнего обращения
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private static final Map<String, List<String>> DEPENDENT_RESOURCES = Map.of(
+            "users", List.of("users", "items", "requests"),
+            "items", List.of("items", "requests"),
+            "bookings", List.of("items"),
+            "requests", List.of("requests")
+    );
+
+    private final ResponseCacheProperties properties;
+    private final Cache<Key, Entry> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "shareit-server.responses");
+    }
+
+    /**
+     * Получение ответа из кэша или от сервера
+     *
+     * @param uri URI запроса
+     * @param userId id пользователя
+     * @param exchange запрос к серверу, принимает ETag закэшированного ответа или null
+     */
+    public CompletableFuture<ResponseEntity<byte[]>> get(URI uri, @Nullable Long userId,
+                                                         Function<String, CompletableFuture<ResponseEntity<byte[]>>> exchange) {
+        String resource = resource(uri);
+        Duration ttl = properties.getTtl().get(resource);
+        if (!properties.isEnabled() || ttl == null) {
+            return exchange.apply(null);
+        }
+        Key key = new Key(resource, uri.toString(), userId);
+        long generation = generation(resource).get();
+        Entry entry = cache.getIfPresent(key);
+        Entry cached = entry != null && entry.generation == generation ? entry : null;
+        if (cached != null && cached.freshUntil > System.nanoTime()) {
+            return CompletableFuture.completedFuture(cached.toResponse());
+        }
+        return exchange.apply(cached != null ? cached.etag : null).thenApply(response -> {
+            long freshUntil = System.nanoTime() + ttl.toNanos();
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                putIfUnchanged(key, new Entry(cached.body, cached.contentType, cached.etag, freshUntil, generation));
+                return cached.toResponse();
+            }
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                putIfUnchanged(key, new Entry(response.getBody(), response.getHeaders().getContentType(),
+                        response.getHeaders().getETag(), freshUntil, generation));
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Сброс ответов после изменения ресурса без обхода кэша
+     *
+     * @param uri URI изменяющего запроса
+     */
+    public void invalidate(URI uri) {
+        List<String> resources = DEPENDENT_RESOURCES.getOrDefault(resource(uri), List.of(resource(uri)));
+        for (String resource : resources) {
+            generation(resource).incrementAndGet();
+        }
+    }
+
+    /**
+     * Ответ, полученный до изменения ресурса, в кэш не попадает
+     */
+    private void putIfUnchanged(Key key, Entry entry) {
+        if (generation(key.resource).get() == entry.generation) {
+            cache.put(key, entry);
+        }
+    }
+
+    private AtomicLong generation(String resource) {
+        return generations.computeIfAbsent(resource, r -> new AtomicLong());
+    }
+
+    private static String resource(URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final String resource;
+        private final String uri;
+        private final Long userId;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final byte[] body;
+        private final MediaType contentType;
+        private final String etag;
+        private final long freshUntil;
+        private final long generation;
+
+        private ResponseEntity<byte[]> toResponse() {
+            HttpHeaders headers = new HttpHeaders();
+            if (contentType != null) {
+                headers.setContentType(contentType);
+            }
+            if (etag != null) {
+                headers.setETag(etag);
+            }
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки кэша ответов shareit-server в gateway
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    /**
+     * Кэширование включено
+     */
+    private boolean enabled = true;
+    /**
+     * Максимальное число ответов в кэше
+     */
+    private long maximumSize = 10_000;
+    /**
+     * Ответ, к которому не обращались дольше, удаляется из кэша вместе с его ETag
+     */
+    private Duration expireAfterAccess = Duration.ofMinutes(10);
+    /**
+     * Время, в течение которого ответ отдается без обращения к shareit-server, по первому сегменту пути.
+     * Ответы ресурсов, которых нет в списке, не кэшируются
+     */
+    private Map<String, Duration> ttl = new HashMap<>();
+}
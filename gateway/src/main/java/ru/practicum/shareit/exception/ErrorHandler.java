@@ -1,9 +1,14 @@
 package ru.practicum.shareit.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 @RestControllerAdvice
 public class ErrorHandler {
@@ -14,10 +19,30 @@ public class ErrorHandler {
         return new ErrorResponse("GATEWAY BAD REQUEST");
     }
 
+    /**
+     * Ответ shareit-server с ошибкой при потоковой передаче передается клиенту с исходными статусом и телом
+     */
+    @ExceptionHandler
+    public ResponseEntity<byte[]> handleRestClientResponseException(final RestClientResponseException e) {
+        return serverResponse(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<byte[]> handleWebClientResponseException(final WebClientResponseException e) {
+        return serverResponse(e.getRawStatusCode(), e.getHeaders(), e.getResponseBodyAsByteArray());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
         return new ErrorResponse("GATEWAY ERROR");
     }
 
+    private static ResponseEntity<byte[]> serverResponse(int status, @Nullable HttpHeaders headers, byte[] body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (headers != null && headers.getContentType() != null) {
+            response.contentType(headers.getContentType());
+        }
+        return response.body(body);
+    }
 }
@@ -4,63 +4,84 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                      ResponseCache cache, @Value("${shareit-server.async}") boolean async) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                async ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                cache
         );
     }
 
-    public ResponseEntity<Object> addItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> addItem(long userId, ItemDto itemDto) {
+        return postAsync("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getItem(long userId, long itemId) {
+        return getRawAsync("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, long itemId, ItemDto itemDto) {
+        return patchAsync("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> findByDescription(String text, int from, int size) {
+    public CompletableFuture<ResponseEntity<byte[]>> findByDescription(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search", null, parameters);
+        return getRawAsync("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public void delete(long userId, long itemId) {
-        delete("/" + itemId, userId);
+    public Flux<byte[]> streamByDescription(String text, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return stream("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public Flux<byte[]> exportItems(long userId) {
+        return stream("/export", userId, null);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> delete(long userId, long itemId) {
+        return deleteAsync("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> findAllByUserId(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<byte[]>> findAllByUserId(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("", userId, parameters);
+        return getRawAsync("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public CompletableFuture<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return postAsync("/" + itemId + "/comment", userId, commentDto);
     }
 }
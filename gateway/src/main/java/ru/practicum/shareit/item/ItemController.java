@@ -10,6 +10,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/items")
@@ -23,27 +24,29 @@ public class ItemController {
     private final ItemValidation validation;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(HEADER) long userId, @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> addItem(@RequestHeader(HEADER) long userId,
+                                                             @RequestBody ItemDto itemDto) {
         validation.validate(itemDto);
         log.info("GATEWAY: User {} create item {}", userId, itemDto);
         return itemClient.addItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(HEADER) long userId, @RequestBody ItemDto itemDto,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@RequestHeader(HEADER) long userId, @RequestBody ItemDto itemDto,
                                  @PathVariable long itemId) {
         log.info("GATEWAY: User {} update item {} with {}", userId, itemId, itemDto);
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> findById(@RequestHeader(HEADER) long userId, @PathVariable long itemId) {
+    public CompletableFuture<ResponseEntity<byte[]>> findById(@RequestHeader(HEADER) long userId,
+                                                              @PathVariable long itemId) {
         log.info("GATEWAY: Get item id = {}", itemId);
         return itemClient.getItem(userId, itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> findByDescription(@RequestParam(value = "text") String text,
+    public CompletableFuture<ResponseEntity<byte[]>> findByDescription(@RequestParam(value = "text") String text,
                                   @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") int from,
                                   @Positive @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
         log.info("GATEWAY: Get item name/description = {}", text);
@@ -51,7 +54,7 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllByUserId(@RequestHeader(HEADER) long userId,
+    public CompletableFuture<ResponseEntity<byte[]>> findAllByUserId(@RequestHeader(HEADER) long userId,
                                   @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") int from,
                                   @Positive @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
         log.info("GATEWAY: Get items by user id = {}", userId);
@@ -59,13 +62,13 @@ public class ItemController {
     }
 
     @DeleteMapping("/{itemId}")
-    public void deleteItem(@RequestHeader(HEADER) long userId, @PathVariable long itemId) {
+    public CompletableFuture<Void> deleteItem(@RequestHeader(HEADER) long userId, @PathVariable long itemId) {
         log.info("GATEWAY: Delete item id = {}", itemId);
-        itemClient.delete(userId, itemId);
+        return itemClient.delete(userId, itemId).thenAccept(response -> { });
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(HEADER) long userId, @PathVariable long itemId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(@RequestHeader(HEADER) long userId, @PathVariable long itemId,
                                  @RequestBody CommentDto commentDto) {
         log.info("GATEWAY: User {} adds comment {} to item {}", userId, commentDto, itemId);
         validation.validate(commentDto);
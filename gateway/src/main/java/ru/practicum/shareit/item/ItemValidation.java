@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.ValidationException;
 
+@Component
 public class ItemValidation {
 
     /**
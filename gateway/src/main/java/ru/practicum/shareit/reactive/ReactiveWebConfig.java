@@ -0,0 +1,34 @@
+package ru.practicum.shareit.reactive;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройка gateway на WebFlux (spring.main.web-application-type=reactive, профиль reactive)
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    /**
+     * Netty вместо Tomcat, который тоже есть в classpath и выбирается автоконфигурацией первым
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Для реактивного приложения RestTemplateBuilder не создается автоконфигурацией. Клиентам он нужен
+     * для построения URI и кэша ответов, запросы к серверу при этом идут через WebClient
+     */
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(ObjectProvider<RestTemplateCustomizer> customizers) {
+        return new RestTemplateBuilder(customizers.orderedStream().toArray(RestTemplateCustomizer[]::new));
+    }
+}
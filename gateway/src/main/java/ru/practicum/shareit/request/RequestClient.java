@@ -4,13 +4,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class RequestClient extends BaseClient {
@@ -18,32 +24,51 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("http://localhost:9090") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                         ResponseCache cache, @Value("${shareit-server.async}") boolean async) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                async ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                cache
         );
     }
 
-    public ResponseEntity<Object> addRequest(long userId, ItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public CompletableFuture<ResponseEntity<Object>> addRequest(long userId, ItemRequestDto requestDto) {
+        return postAsync("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getOwnRequests(long userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getOwnRequests(long userId) {
+        return getRawAsync("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<byte[]>> getAllRequests(long userId, int from, int size,
+                                                                    LocalDateTime cursorCreated, Long cursorId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all", userId, parameters);
+        ));
+        if (cursorId == null) {
+            return getRawAsync("/all?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursorCreated", cursorCreated);
+        parameters.put("cursorId", cursorId);
+        return getRawAsync("/all?from={from}&size={size}&cursorCreated={cursorCreated}&cursorId={cursorId}",
+                userId, parameters);
+    }
+
+    public Flux<byte[]> streamAllRequests(long userId, int from, int size) {
+        return stream("/all?from={from}&size={size}", userId, Map.of("from", from, "size", size));
+    }
+
+    public Flux<byte[]> streamAllRequests(long userId) {
+        return stream("/all/stream", userId, null);
     }
 
-    public ResponseEntity<Object> getRequest(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getRequest(long userId, long requestId) {
+        return getRawAsync("/" + requestId, userId);
     }
 }
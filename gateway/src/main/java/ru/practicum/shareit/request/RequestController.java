@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -9,6 +10,8 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/requests")
@@ -22,29 +25,34 @@ public class RequestController {
     private final RequestValidation validation;
 
     @PostMapping
-    public ResponseEntity<Object> addNewItemRequest(@RequestHeader(HEADER) long userId,
-                                                    @RequestBody ItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> addNewItemRequest(@RequestHeader(HEADER) long userId,
+                                                                       @RequestBody ItemRequestDto requestDto) {
         validation.validate(requestDto);
         log.info("GATEWAY: User {} create new ItemRequest {}", userId, requestDto);
         return requestClient.addRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnRequests(@RequestHeader(HEADER) long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getOwnRequests(@RequestHeader(HEADER) long userId) {
         log.info("GATEWAY: User {} get own requests", userId);
         return requestClient.getOwnRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(HEADER) long userId,
+    public CompletableFuture<ResponseEntity<byte[]>> getAllRequests(@RequestHeader(HEADER) long userId,
                               @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") int from,
-                              @Positive @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+                              @Positive @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+                              @RequestParam(value = "cursorCreated", required = false)
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreated,
+                              @RequestParam(value = "cursorId", required = false) Long cursorId) {
         log.info("GATEWAY: User {} get all requests with from = {} and size = {}", userId, from, size);
-        return requestClient.getAllRequests(userId, from, size);
+        validation.validate(cursorCreated, cursorId);
+        return requestClient.getAllRequests(userId, from, size, cursorCreated, cursorId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequest(@RequestHeader(HEADER) long userId, @PathVariable long requestId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getRequest(@RequestHeader(HEADER) long userId,
+                                                                @PathVariable long requestId) {
         log.info("GATEWAY: User {} get request {}", userId, requestId);
         return requestClient.getRequest(userId, requestId);
     }
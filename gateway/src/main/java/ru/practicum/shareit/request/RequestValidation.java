@@ -1,8 +1,12 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+
+@Component
 public class RequestValidation {
 
     /**
@@ -13,4 +17,13 @@ public class RequestValidation {
             throw new ValidationException("Пустое описание");
         }
     }
+
+    /**
+     * Проверка курсора: дата создания и id последнего полученного запроса передаются вместе
+     */
+    public void validate(LocalDateTime cursorCreated, Long cursorId) {
+        if ((cursorCreated == null) != (cursorId == null)) {
+            throw new ValidationException("Курсор должен содержать cursorCreated и cursorId");
+        }
+    }
 }
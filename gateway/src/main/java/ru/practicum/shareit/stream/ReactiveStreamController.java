@@ -0,0 +1,109 @@
+package ru.practicum.shareit.stream;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.RequestClient;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * NDJSON-варианты эндпоинтов чтения для WebFlux: тело ответа shareit-server передается клиенту частями
+ * по мере получения, следующая часть запрашивается у сервера после записи предыдущей
+ */
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStreamController {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+    private final ItemClient itemClient;
+    private final BookingClient bookingClient;
+    private final RequestClient requestClient;
+
+    @GetMapping(value = "/items/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<byte[]> findByDescription(@RequestParam(value = "text") String text,
+                                  @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+                                  @Positive @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+        log.info("GATEWAY: Stream item name/description = {}", text);
+        return itemClient.streamByDescription(text, from, size);
+    }
+
+    @GetMapping(value = "/bookings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<byte[]> getBookings(@RequestHeader(HEADER) long userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                    @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+        log.info("GATEWAY: Stream booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        return bookingClient.streamBookings(userId, state(stateParam), from, size);
+    }
+
+    @GetMapping(value = "/bookings/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<byte[]> getBookingsForItems(@RequestHeader(HEADER) long userId,
+                                            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                            @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+        log.info("GATEWAY: Stream owner bookings with state {}, userId={}, from={}, size={}", stateParam, userId,
+                from, size);
+        return bookingClient.streamBookingsForItems(userId, state(stateParam), from, size);
+    }
+
+    @GetMapping(value = "/requests/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<byte[]> getAllRequests(@RequestHeader(HEADER) long userId,
+                              @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+                              @Positive @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+        log.info("GATEWAY: User {} stream all requests with from = {} and size = {}", userId, from, size);
+        return requestClient.streamAllRequests(userId, from, size);
+    }
+
+    @GetMapping("/requests/all/stream")
+    public ResponseEntity<Flux<byte[]>> streamAllRequests(@RequestHeader(HEADER) long userId) {
+        log.info("GATEWAY: User {} stream all requests", userId);
+        return ndjson(requestClient.streamAllRequests(userId));
+    }
+
+    @GetMapping("/items/export")
+    public ResponseEntity<Flux<byte[]>> exportItems(@RequestHeader(HEADER) long userId) {
+        log.info("GATEWAY: User {} export items", userId);
+        return ndjson(itemClient.exportItems(userId));
+    }
+
+    @GetMapping("/bookings/export")
+    public ResponseEntity<Flux<byte[]>> exportBookings(@RequestHeader(HEADER) long userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+        log.info("GATEWAY: User {} export bookings with state {}", userId, stateParam);
+        return ndjson(bookingClient.exportBookings(userId, state(stateParam)));
+    }
+
+    @GetMapping("/bookings/owner/export")
+    public ResponseEntity<Flux<byte[]>> exportBookingsForItems(@RequestHeader(HEADER) long userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+        log.info("GATEWAY: User {} export owner bookings with state {}", userId, stateParam);
+        return ndjson(bookingClient.exportBookingsForItems(userId, state(stateParam)));
+    }
+
+    static BookingState state(String stateParam) {
+        return BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+    }
+
+    private static ResponseEntity<Flux<byte[]>> ndjson(Flux<byte[]> body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
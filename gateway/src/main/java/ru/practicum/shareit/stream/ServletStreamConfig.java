@@ -0,0 +1,32 @@
+package ru.practicum.shareit.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServletStreamConfig {
+
+    /**
+     * Ответ об ошибке на NDJSON-запрос пишется одной строкой JSON
+     */
+    @Bean
+    public WebMvcConfigurer ndjsonErrorConverter(ObjectMapper objectMapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(objectMapper);
+                converter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_NDJSON));
+                converters.add(converter);
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.stream;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.RequestClient;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * NDJSON-варианты эндпоинтов чтения для Spring MVC. Spring MVC дописывает перевод строки после каждого
+ * элемента Flux, поэтому части тела ответа shareit-server пишутся в ответ как есть через StreamingResponseBody
+ */
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServletStreamController {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+    private final ItemClient itemClient;
+    private final BookingClient bookingClient;
+    private final RequestClient requestClient;
+
+    @GetMapping(value = "/items/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findByDescription(@RequestParam(value = "text") String text,
+                                  @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+                                  @Positive @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+        log.info("GATEWAY: Stream item name/description = {}", text);
+        return ndjson(itemClient.streamByDescription(text, from, size));
+    }
+
+    @GetMapping(value = "/bookings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getBookings(@RequestHeader(HEADER) long userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                    @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+        log.info("GATEWAY: Stream booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        return ndjson(bookingClient.streamBookings(userId, ReactiveStreamController.state(stateParam), from, size));
+    }
+
+    @GetMapping(value = "/bookings/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getBookingsForItems(@RequestHeader(HEADER) long userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                    @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+        log.info("GATEWAY: Stream owner bookings with state {}, userId={}, from={}, size={}", stateParam, userId,
+                from, size);
+        return ndjson(bookingClient.streamBookingsForItems(userId, ReactiveStreamController.state(stateParam),
+                from, size));
+    }
+
+    @GetMapping(value = "/requests/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllRequests(@RequestHeader(HEADER) long userId,
+                              @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+                              @Positive @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+        log.info("GATEWAY: User {} stream all requests with from = {} and size = {}", userId, from, size);
+        return ndjson(requestClient.streamAllRequests(userId, from, size));
+    }
+
+    @GetMapping("/requests/all/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllRequests(@RequestHeader(HEADER) long userId) {
+        log.info("GATEWAY: User {} stream all requests", userId);
+        return ndjson(requestClient.streamAllRequests(userId));
+    }
+
+    @GetMapping("/items/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader(HEADER) long userId) {
+        log.info("GATEWAY: User {} export items", userId);
+        return ndjson(itemClient.exportItems(userId));
+    }
+
+    @GetMapping("/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader(HEADER) long userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+        log.info("GATEWAY: User {} export bookings with state {}", userId, stateParam);
+        return ndjson(bookingClient.exportBookings(userId, ReactiveStreamController.state(stateParam)));
+    }
+
+    @GetMapping("/bookings/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForItems(@RequestHeader(HEADER) long userId,
+                                    @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+        log.info("GATEWAY: User {} export owner bookings with state {}", userId, stateParam);
+        return ndjson(bookingClient.exportBookingsForItems(userId, ReactiveStreamController.state(stateParam)));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(Flux<byte[]> body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    for (byte[] chunk : body.toIterable(1)) {
+                        out.write(chunk);
+                        out.flush();
+                    }
+                });
+    }
+}
@@ -4,45 +4,53 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, WebClient.Builder webClientBuilder,
+                      ResponseCache cache, @Value("${shareit-server.async}") boolean async) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                async ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                cache
         );
     }
 
 
-    public ResponseEntity<Object> addNewUser(UserDto userDto) {
-        return post("", userDto);
+    public CompletableFuture<ResponseEntity<Object>> addNewUser(UserDto userDto) {
+        return postAsync("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(UserDto userDto, long userId) {
-        return patch("/" + userId, userDto);
+    public CompletableFuture<ResponseEntity<Object>> updateUser(UserDto userDto, long userId) {
+        return patchAsync("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> getUsers() {
-        return get("");
+    public CompletableFuture<ResponseEntity<byte[]>> getUsers() {
+        return getRawAsync("");
     }
 
-    public void deleteUser(long userId) {
-        delete("/" + userId);
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(long userId) {
+        return deleteAsync("/" + userId);
     }
 
-    public ResponseEntity<Object> findById(long userId) {
-        return get("/" + userId);
+    public CompletableFuture<ResponseEntity<byte[]>> findById(long userId) {
+        return getRawAsync("/" + userId);
     }
 }
@@ -6,6 +6,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -16,33 +18,34 @@ public class UserController {
     private final UserValidation validation;
 
     @PostMapping
-    public ResponseEntity<Object> addNewUser(@RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> addNewUser(@RequestBody UserDto userDto) {
         validation.validate(userDto);
         log.info("GATEWAY: Add new user {}", userDto);
         return userClient.addNewUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@RequestBody UserDto userDto, @PathVariable long userId) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@RequestBody UserDto userDto,
+                                                                @PathVariable long userId) {
         log.info("GATEWAY: Update user id = {}, new user = {}", userId, userDto);
         return userClient.updateUser(userDto, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsers() {
         log.info("GATEWAY: Get all users");
         return userClient.getUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> findById(@PathVariable long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> findById(@PathVariable long userId) {
         log.info("GATEWAY: Get user id = {}", userId);
         return userClient.findById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUser(@PathVariable long userId) {
+    public CompletableFuture<Void> deleteUser(@PathVariable long userId) {
         log.info("GATEWAY: Delete user id = {}", userId);
-        userClient.deleteUser(userId);
+        return userClient.deleteUser(userId).thenAccept(response -> { });
     }
 }
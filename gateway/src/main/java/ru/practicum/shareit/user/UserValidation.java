@@ -1,8 +1,10 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+@Component
 public class UserValidation {
 
     /**
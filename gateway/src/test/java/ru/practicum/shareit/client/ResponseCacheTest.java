@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+    private static final URI ITEMS = URI.create("http://localhost:9090/items?from=0&size=10");
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+    private static final URI BOOKING = URI.create("http://localhost:9090/bookings/1");
+    private static final URI USER = URI.create("http://localhost:9090/users/1");
+
+    private final List<String> etags = new ArrayList<>();
+
+    @Test
+    void freshResponseServedWithoutServer() {
+        ResponseCache cache = cache(Duration.ofHours(1));
+
+        assertBody("v1", cache.get(ITEMS, 1L, respond("v1", "\"1\"")));
+        assertBody("v1", cache.get(ITEMS, 1L, respond("v2", "\"2\"")));
+        assertBody("v2", cache.get(ITEMS, 2L, respond("v2", "\"2\"")));
+        assertEquals(Arrays.asList(null, null), etags);
+    }
+
+    @Test
+    void expiredResponseRevalidatedWithEtag() {
+        ResponseCache cache = cache(Duration.ZERO);
+
+        assertBody("v1", cache.get(ITEMS, 1L, respond("v1", "\"1\"")));
+        assertBody("v1", cache.get(ITEMS, 1L, notModified()));
+        assertBody("v2", cache.get(ITEMS, 1L, respond("v2", "\"2\"")));
+        assertBody("v2", cache.get(ITEMS, 1L, notModified()));
+        assertEquals(Arrays.asList(null, "\"1\"", "\"1\"", "\"2\""), etags);
+    }
+
+    @Test
+    void writeInvalidatesResourceAndDependents() {
+        ResponseCache cache = cache(Duration.ofHours(1));
+        cache.get(ITEMS, 1L, respond("v1", "\"1\""));
+        cache.get(USER, 1L, respond("user", "\"u\""));
+
+        cache.invalidate(BOOKING);
+        assertBody("v2", cache.get(ITEMS, 1L, respond("v2", "\"2\"")));
+        assertBody("user", cache.get(USER, 1L, respond("other", "\"o\"")));
+
+        cache.invalidate(ITEM);
+        assertBody("v3", cache.get(ITEMS, 1L, respond("v3", "\"3\"")));
+        assertEquals(Arrays.asList(null, null, null, null), etags);
+    }
+
+    @Test
+    void responseReceivedBeforeWriteNotCached() {
+        ResponseCache cache = cache(Duration.ofHours(1));
+        CompletableFuture<ResponseEntity<byte[]>> pending = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> response = cache.get(ITEMS, 1L, etag -> pending);
+
+        cache.invalidate(ITEM);
+        pending.complete(ResponseEntity.ok().eTag("\"1\"").body("v1".getBytes()));
+        assertBody("v1", response);
+        assertBody("v2", cache.get(ITEMS, 1L, respond("v2", "\"2\"")));
+        assertNull(etags.get(0));
+    }
+
+    private ResponseCache cache(Duration ttl) {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(Map.of("items", ttl, "users", ttl));
+        return new ResponseCache(properties, new SimpleMeterRegistry());
+    }
+
+    private Function<String, CompletableFuture<ResponseEntity<byte[]>>> respond(String body, String etag) {
+        return ifNoneMatch -> {
+            etags.add(ifNoneMatch);
+            return CompletableFuture.completedFuture(ResponseEntity.ok().eTag(etag).body(body.getBytes()));
+        };
+    }
+
+    private Function<String, CompletableFuture<ResponseEntity<byte[]>>> notModified() {
+        return ifNoneMatch -> {
+            etags.add(ifNoneMatch);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        };
+    }
+
+    private static void assertBody(String expected, CompletableFuture<ResponseEntity<byte[]>> response) {
+        assertArrayEquals(expected.getBytes(), response.join().getBody());
+    }
+}
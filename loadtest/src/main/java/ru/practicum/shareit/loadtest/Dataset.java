@@ -0,0 +1,29 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Созданные при подготовке пользователи, предметы, запросы и бронирования
+ */
+@Getter
+public class Dataset {
+    // слова для названий и описаний предметов, по ним же выполняется поиск
+    static final List<String> WORDS = List.of("дрель", "пила", "отвертка", "лестница", "палатка", "велосипед",
+            "самокат", "проектор", "гитара", "шуруповерт", "перфоратор", "байдарка");
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> requestIds = new ArrayList<>();
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    /**
+     * Случайный пользователь, от имени которого выполняется запрос
+     */
+    public long randomUser(Random random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+}
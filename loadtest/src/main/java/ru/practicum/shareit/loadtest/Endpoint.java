@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Эндпоинты gateway, из которых состоит нагрузка. Пользователь и параметры выбираются случайно из тестовых данных
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Endpoint {
+    SEARCH("search", "/items/search", true) {
+        @Override
+        String uri(Dataset dataset, int pageSize, Random random) {
+            String text = Dataset.WORDS.get(random.nextInt(Dataset.WORDS.size()));
+            return getPath() + "?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8) + "&from=0&size=" + pageSize;
+        }
+    },
+    ITEMS("items", "/items", false) {
+        @Override
+        String uri(Dataset dataset, int pageSize, Random random) {
+            return getPath() + "?from=0&size=" + pageSize;
+        }
+    },
+    BOOKINGS("bookings", "/bookings", true) {
+        @Override
+        String uri(Dataset dataset, int pageSize, Random random) {
+            return getPath() + "?state=" + STATES[random.nextInt(STATES.length)] + "&from=0&size=" + pageSize;
+        }
+    },
+    OWNER("owner", "/bookings/owner", true) {
+        @Override
+        String uri(Dataset dataset, int pageSize, Random random) {
+            return getPath() + "?state=" + STATES[random.nextInt(STATES.length)] + "&from=0&size=" + pageSize;
+        }
+    },
+    REQUESTS("requests", "/requests/all", true) {
+        @Override
+        String uri(Dataset dataset, int pageSize, Random random) {
+            return getPath() + "?from=0&size=" + pageSize;
+        }
+    };
+
+    private static final String[] STATES = {"ALL", "ALL", "FUTURE", "WAITING"};
+
+    private final String name;
+    private final String path;
+    // у эндпоинта есть NDJSON-вариант, который выбирается параметром --accept=ndjson
+    private final boolean streaming;
+
+    /**
+     * Путь со строкой запроса относительно адреса gateway
+     */
+    abstract String uri(Dataset dataset, int pageSize, Random random);
+
+    public static Endpoint byName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.name.equalsIgnoreCase(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный эндпоинт: " + name);
+    }
+}
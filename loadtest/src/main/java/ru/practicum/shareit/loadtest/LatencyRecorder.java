@@ -0,0 +1,50 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Задержки ответов одного эндпоинта в наносекундах. Каждый поток пишет в свой экземпляр,
+ * после завершения нагрузки экземпляры объединяются
+ */
+public class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    public void record(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public void merge(LatencyRecorder other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Отсортированная копия задержек для расчета процентилей
+     */
+    public long[] sorted() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
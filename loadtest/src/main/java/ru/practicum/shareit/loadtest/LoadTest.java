@@ -0,0 +1,46 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.Map;
+
+/**
+ * Нагрузочный тест ShareIt через gateway: подготовка данных, прогрев, измерение и отчет.
+ * Отчет выводится таблицей и сохраняется в JSON для сравнения между запусками
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestProperties properties = LoadTestProperties.fromArgs(args);
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ShareItClient client = new ShareItClient(properties.getBaseUrl(), mapper);
+
+        LocalStack stack = properties.isLocal() ? LocalStack.start(properties, client) : null;
+        try {
+            System.out.println("Подготовка данных: " + properties);
+            long seedStart = System.currentTimeMillis();
+            Dataset dataset = new Seeder(client, properties).seed();
+            System.out.printf("Создано пользователей %d, предметов %d, запросов %d, бронирований %d за %d мс%n",
+                    dataset.getUserIds().size(), dataset.getItemIds().size(), dataset.getRequestIds().size(),
+                    dataset.getBookingIds().size(), System.currentTimeMillis() - seedStart);
+
+            System.out.printf("Нагрузка: %d потоков, %s, прогрев %d с, измерение %d с%n", properties.getThreads(),
+                    properties.getRate() > 0 ? properties.getRate() + " запросов/с" : "замкнутый цикл",
+                    properties.getWarmup().getSeconds(), properties.getDuration().getSeconds());
+            Map<Endpoint, LatencyRecorder> recorders = new Workload(client, properties, dataset).run();
+
+            Report report = new Report(properties, dataset, recorders);
+            report.print(System.out);
+            report.write(mapper, properties.getReport());
+            System.out.println("Отчет сохранен в " + properties.getReport().toAbsolutePath());
+        } finally {
+            if (stack != null) {
+                stack.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста. Передаются аргументами вида --users=100
+ */
+@Getter
+@ToString
+public class LoadTestProperties {
+    // адрес gateway
+    private String baseUrl = "http://localhost:8080";
+    // объем тестовых данных
+    private int users = 50;
+    private int itemsPerUser = 10;
+    private int requestsPerUser = 2;
+    private int bookingsPerUser = 5;
+    // нагрузка
+    private int threads = 16;
+    // открытая модель: запросов в секунду по расписанию, 0 - замкнутый цикл
+    private int rate = 0;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private int pageSize = 10;
+    // ответы эндпоинтов чтения в NDJSON вместо JSON (--accept=ndjson)
+    private boolean ndjson = false;
+    private long seed = 42;
+    private Map<Endpoint, Integer> mix = parseMix("search=30,items=20,bookings=20,owner=15,requests=15");
+    private Path report = Path.of("loadtest", "target", "loadtest-result.json");
+    // запуск сервера на H2 и gateway из собранных jar
+    private boolean local = false;
+    private Path serverJar = Path.of("server", "target", "shareit-server-0.0.1-SNAPSHOT-exec.jar");
+    private Path gatewayJar = Path.of("gateway", "target", "shareit-gateway-0.0.1-SNAPSHOT-exec.jar");
+    private int serverPort = 9090;
+    private int gatewayPort = 8080;
+    // стек с профилем reactive: с --local=true сервер и gateway запускаются с ним, в отчете отмечается режим
+    private boolean reactive = false;
+
+    /**
+     * Разбор аргументов командной строки
+     *
+     * @param args аргументы вида --name=value
+     */
+    public static LoadTestProperties fromArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Аргумент должен иметь вид --name=value: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        LoadTestProperties properties = new LoadTestProperties();
+        properties.apply(values);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Неизвестные параметры: " + values.keySet());
+        }
+        return properties;
+    }
+
+    private void apply(Map<String, String> values) {
+        local = Boolean.parseBoolean(values.getOrDefault("local", String.valueOf(local)));
+        values.remove("local");
+        reactive = Boolean.parseBoolean(stringValue(values, "reactive", String.valueOf(reactive)));
+        serverPort = intValue(values, "server-port", serverPort);
+        gatewayPort = intValue(values, "gateway-port", gatewayPort);
+        if (local) {
+            baseUrl = "http://localhost:" + gatewayPort;
+        }
+        baseUrl = stringValue(values, "base-url", baseUrl);
+        users = intValue(values, "users", users);
+        itemsPerUser = intValue(values, "items-per-user", itemsPerUser);
+        requestsPerUser = intValue(values, "requests-per-user", requestsPerUser);
+        bookingsPerUser = intValue(values, "bookings-per-user", bookingsPerUser);
+        threads = intValue(values, "threads", threads);
+        rate = intValue(values, "rate", rate);
+        warmup = Duration.ofSeconds(intValue(values, "warmup-seconds", (int) warmup.getSeconds()));
+        duration = Duration.ofSeconds(intValue(values, "duration-seconds", (int) duration.getSeconds()));
+        pageSize = intValue(values, "page-size", pageSize);
+        String accept = stringValue(values, "accept", ndjson ? "ndjson" : "json");
+        if (!accept.equals("json") && !accept.equals("ndjson")) {
+            throw new IllegalArgumentException("Формат ответов задается как json или ndjson: " + accept);
+        }
+        ndjson = accept.equals("ndjson");
+        seed = Long.parseLong(stringValue(values, "seed", String.valueOf(seed)));
+        String mixValue = values.remove("mix");
+        if (mixValue != null) {
+            mix = parseMix(mixValue);
+        }
+        report = Path.of(stringValue(values, "report", report.toString()));
+        serverJar = Path.of(stringValue(values, "server-jar", serverJar.toString()));
+        gatewayJar = Path.of(stringValue(values, "gateway-jar", gatewayJar.toString()));
+        if (rate < 0) {
+            throw new IllegalArgumentException("Частота запросов не может быть отрицательной: " + rate);
+        }
+        if (users < 2) {
+            throw new IllegalArgumentException("Нужно хотя бы два пользователя: владелец и арендатор");
+        }
+        if (itemsPerUser < 1) {
+            throw new IllegalArgumentException("У каждого пользователя должен быть хотя бы один предмет");
+        }
+    }
+
+    /**
+     * Разбор весов эндпоинтов: search=30,items=20
+     */
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Вес задается как endpoint=weight: " + part);
+            }
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                weights.put(Endpoint.byName(pair[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Смесь запросов пуста: " + value);
+        }
+        return weights;
+    }
+
+    private static String stringValue(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        return Integer.parseInt(stringValue(values, name, String.valueOf(defaultValue)));
+    }
+}
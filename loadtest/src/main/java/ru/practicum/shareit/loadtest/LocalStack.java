@@ -0,0 +1,110 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервер на встроенной базе H2 и gateway, запущенные из собранных jar отдельными процессами.
+ * Логи процессов пишутся рядом с отчетом
+ */
+public class LocalStack implements AutoCloseable {
+    private static final long START_TIMEOUT_MILLIS = 120_000;
+
+    private final Process server;
+    private final Process gateway;
+
+    private LocalStack(Process server, Process gateway) {
+        this.server = server;
+        this.gateway = gateway;
+    }
+
+    public static LocalStack start(LoadTestProperties properties, ShareItClient probe)
+            throws IOException, InterruptedException {
+        Path logs = properties.getReport().toAbsolutePath().getParent();
+        Files.createDirectories(logs);
+        List<String> serverArgs = new ArrayList<>(List.of(
+                "--server.port=" + properties.getServerPort(),
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=loadtest",
+                "--spring.datasource.password=loadtest",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.org.springframework.transaction.interceptor=INFO",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO"));
+        List<String> gatewayArgs = new ArrayList<>(List.of(
+                "--server.port=" + properties.getGatewayPort(),
+                "--shareit-server.url=http://localhost:" + properties.getServerPort()));
+        if (properties.isReactive()) {
+            // R2DBC открывает ту же базу H2 в памяти, что и JDBC
+            serverArgs.addAll(List.of(
+                    "--spring.profiles.active=reactive",
+                    "--shareit.reactive.url=r2dbc:h2:mem:///loadtest",
+                    "--shareit.reactive.username=loadtest",
+                    "--shareit.reactive.password=loadtest"));
+            gatewayArgs.add("--spring.profiles.active=reactive");
+        }
+        Process server = launch(properties.getServerJar(), logs.resolve("loadtest-server.log"), serverArgs);
+        Process gateway = null;
+        try {
+            awaitHealthy(probe, "http://localhost:" + properties.getServerPort(), server);
+            gateway = launch(properties.getGatewayJar(), logs.resolve("loadtest-gateway.log"), gatewayArgs);
+            awaitHealthy(probe, "http://localhost:" + properties.getGatewayPort(), gateway);
+            return new LocalStack(server, gateway);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            stop(gateway);
+            stop(server);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        stop(gateway);
+        stop(server);
+    }
+
+    private static Process launch(Path jar, Path log, List<String> args) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Не найден " + jar + ", соберите проект: mvn -B package -DskipTests");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(args);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void awaitHealthy(ShareItClient probe, String baseUrl, Process process)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + START_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(baseUrl + " завершился с кодом " + process.exitValue());
+            }
+            if (probe.status(baseUrl + "/actuator/health") == 200) {
+                return;
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(baseUrl + " не запустился за " + START_TIMEOUT_MILLIS / 1000 + " с");
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        if (process == null) {
+            return;
+        }
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
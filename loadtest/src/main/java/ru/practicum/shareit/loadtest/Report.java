@@ -0,0 +1,119 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пропускная способность и процентили задержек по эндпоинтам и в целом. Процентили замкнутого цикла
+ * не учитывают запросы, отложенные медленными ответами, и помечаются в отчете
+ */
+@Getter
+public class Report {
+    private static final String TOTAL = "total";
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    private final List<EndpointStats> endpoints = new ArrayList<>();
+
+    public Report(LoadTestProperties properties, Dataset dataset, Map<Endpoint, LatencyRecorder> recorders) {
+        parameters.put("baseUrl", properties.getBaseUrl());
+        parameters.put("users", dataset.getUserIds().size());
+        parameters.put("items", dataset.getItemIds().size());
+        parameters.put("requests", dataset.getRequestIds().size());
+        parameters.put("bookings", dataset.getBookingIds().size());
+        parameters.put("threads", properties.getThreads());
+        parameters.put("model", properties.getRate() > 0 ? "open" : "closed");
+        parameters.put("rate", properties.getRate());
+        parameters.put("warmupSeconds", properties.getWarmup().getSeconds());
+        parameters.put("durationSeconds", properties.getDuration().getSeconds());
+        parameters.put("pageSize", properties.getPageSize());
+        parameters.put("accept", properties.isNdjson() ? "ndjson" : "json");
+        parameters.put("reactive", properties.isReactive());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        properties.getMix().forEach((endpoint, weight) -> mix.put(endpoint.getName(), weight));
+        parameters.put("mix", mix);
+
+        double seconds = properties.getDuration().toNanos() / 1e9;
+        LatencyRecorder total = new LatencyRecorder();
+        recorders.forEach((endpoint, recorder) -> {
+            endpoints.add(EndpointStats.of(endpoint.getName() + " " + endpoint.getPath(), recorder, seconds));
+            total.merge(recorder);
+        });
+        endpoints.add(EndpointStats.of(TOTAL, total, seconds));
+    }
+
+    public void print(PrintStream out) {
+        if ("closed".equals(parameters.get("model"))) {
+            out.println("Замкнутый цикл: задержки без ожидания отправки (coordinated omission), "
+                    + "для процентилей под заданной частотой используйте --rate");
+        } else {
+            out.printf("Открытая модель, %d запросов/с: задержки от запланированного момента отправки%n",
+                    (Integer) parameters.get("rate"));
+        }
+        out.printf("%-32s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                "mean ms", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms");
+        for (EndpointStats stats : endpoints) {
+            out.printf("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.endpoint, stats.requests, stats.errors, stats.throughput,
+                    stats.meanMs, stats.p50Ms, stats.p90Ms, stats.p95Ms, stats.p99Ms, stats.maxMs);
+        }
+    }
+
+    public void write(ObjectMapper mapper, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), this);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class EndpointStats {
+        private final String endpoint;
+        private final int requests;
+        private final long errors;
+        private final double throughput;
+        private final double meanMs;
+        private final double p50Ms;
+        private final double p90Ms;
+        private final double p95Ms;
+        private final double p99Ms;
+        private final double maxMs;
+
+        static EndpointStats of(String endpoint, LatencyRecorder recorder, double seconds) {
+            long[] sorted = recorder.sorted();
+            long sum = 0;
+            for (long latency : sorted) {
+                sum += latency;
+            }
+            return new EndpointStats(endpoint, sorted.length, recorder.getErrors(), sorted.length / seconds,
+                    sorted.length == 0 ? 0 : millis(sum / sorted.length),
+                    percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), sorted.length == 0 ? 0 : millis(sorted[sorted.length - 1]));
+        }
+
+        /**
+         * Процентиль по методу ближайшего ранга
+         */
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return millis(sorted[Math.max(rank, 1) - 1]);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Подготовка тестовых данных через gateway. Почта пользователей содержит метку запуска, поэтому подготовку
+ * можно повторять на одной базе
+ */
+@RequiredArgsConstructor
+public class Seeder {
+    private static final List<String> ADJECTIVES = List.of("новая", "мощная", "компактная", "старая", "удобная",
+            "легкая", "профессиональная", "складная");
+
+    private final ShareItClient client;
+    private final LoadTestProperties properties;
+
+    /**
+     * Создание пользователей, запросов, предметов и бронирований. Бронирования каждого арендатора создаются
+     * одним пакетом, две трети из них владельцы подтверждают пакетами
+     */
+    public Dataset seed() throws IOException, InterruptedException {
+        Random random = new Random(properties.getSeed());
+        Dataset dataset = new Dataset();
+        long runId = System.currentTimeMillis();
+
+        for (int i = 0; i < properties.getUsers(); i++) {
+            Map<String, Object> user = Map.of("name", "user" + i, "email", "user" + i + "-" + runId + "@loadtest.ru");
+            dataset.getUserIds().add(client.send("POST", "/users", null, user).get("id").asLong());
+        }
+
+        for (long userId : dataset.getUserIds()) {
+            for (int i = 0; i < properties.getRequestsPerUser(); i++) {
+                Map<String, Object> request = Map.of("description", "Нужна " + randomWord(random));
+                dataset.getRequestIds().add(client.send("POST", "/requests", userId, request).get("id").asLong());
+            }
+        }
+
+        Map<Long, Long> itemOwners = new HashMap<>();
+        for (long userId : dataset.getUserIds()) {
+            for (int i = 0; i < properties.getItemsPerUser(); i++) {
+                String word = randomWord(random);
+                Map<String, Object> item = new LinkedHashMap<>();
+                // название предмета уникально в пределах владельца
+                item.put("name", word + " " + (i + 1));
+                item.put("description", ADJECTIVES.get(random.nextInt(ADJECTIVES.size())) + " " + word);
+                item.put("available", true);
+                // каждый пятый предмет создается в ответ на запрос
+                if (!dataset.getRequestIds().isEmpty() && random.nextInt(5) == 0) {
+                    item.put("requestId", dataset.getRequestIds().get(random.nextInt(dataset.getRequestIds().size())));
+                }
+                long itemId = client.send("POST", "/items", userId, item).get("id").asLong();
+                dataset.getItemIds().add(itemId);
+                itemOwners.put(itemId, userId);
+            }
+        }
+
+        // у каждого предмета свои непересекающиеся двухчасовые интервалы начиная с завтрашнего дня
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Map<Long, Integer> slots = new HashMap<>();
+        Map<Long, List<Long>> toApprove = new HashMap<>();
+        for (long bookerId : dataset.getUserIds()) {
+            List<Map<String, Object>> bookings = new ArrayList<>();
+            for (int i = 0; i < properties.getBookingsPerUser(); i++) {
+                long itemId = randomItemOf(dataset, itemOwners, bookerId, random);
+                int slot = slots.merge(itemId, 1, Integer::sum);
+                bookings.add(Map.of(
+                        "itemId", itemId,
+                        "start", base.plusHours(2L * slot),
+                        "end", base.plusHours(2L * slot + 1)));
+            }
+            if (bookings.isEmpty()) {
+                continue;
+            }
+            JsonNode created = client.send("POST", "/bookings/batch", bookerId, bookings);
+            for (JsonNode booking : created) {
+                long bookingId = booking.get("id").asLong();
+                dataset.getBookingIds().add(bookingId);
+                if (random.nextInt(3) != 0) {
+                    long ownerId = itemOwners.get(booking.get("item").get("id").asLong());
+                    toApprove.computeIfAbsent(ownerId, id -> new ArrayList<>()).add(bookingId);
+                }
+            }
+        }
+        for (Map.Entry<Long, List<Long>> entry : toApprove.entrySet()) {
+            client.send("PATCH", "/bookings/batch?approved=true", entry.getKey(), entry.getValue());
+        }
+        return dataset;
+    }
+
+    private static String randomWord(Random random) {
+        return Dataset.WORDS.get(random.nextInt(Dataset.WORDS.size()));
+    }
+
+    /**
+     * Случайный предмет, владельцем которого не является арендатор
+     */
+    private static long randomItemOf(Dataset dataset, Map<Long, Long> itemOwners, long bookerId, Random random) {
+        while (true) {
+            long itemId = dataset.getItemIds().get(random.nextInt(dataset.getItemIds().size()));
+            if (itemOwners.get(itemId) != bookerId) {
+                return itemId;
+            }
+        }
+    }
+}
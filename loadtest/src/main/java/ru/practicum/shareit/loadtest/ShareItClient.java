@@ -0,0 +1,87 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Клиент gateway на HttpClient из JDK. Соединения переиспользуются всеми потоками нагрузки
+ */
+public class ShareItClient {
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper;
+    private final String baseUrl;
+
+    public ShareItClient(String baseUrl, ObjectMapper mapper) {
+        this.baseUrl = baseUrl;
+        this.mapper = mapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Запрос с телом в формате JSON, ответ с кодом не 2xx считается ошибкой подготовки данных
+     */
+    public JsonNode send(String method, String uri, Long userId, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = request(uri, userId)
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+        HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(method + " " + uri + " вернул " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+        return mapper.readTree(response.body());
+    }
+
+    /**
+     * GET-запрос нагрузки. Тело ответа читается полностью и отбрасывается
+     *
+     * @param ndjson запросить ответ в формате NDJSON
+     * @return код ответа
+     */
+    public int get(String uri, long userId, boolean ndjson) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = request(uri, userId);
+        if (ndjson) {
+            builder.setHeader("Accept", "application/x-ndjson");
+        }
+        return httpClient.send(builder.GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Код ответа на GET без заголовка пользователя, для проверки готовности сервиса
+     */
+    public int status(String url) {
+        try {
+            return httpClient.send(HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).GET().build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private HttpRequest.Builder request(String uri, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + uri))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json");
+        if (userId != null) {
+            builder.header(HEADER, String.valueOf(userId));
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузка замкнутым циклом: каждый поток отправляет следующий запрос сразу после ответа на предыдущий.
+ * В замкнутом цикле медленный ответ откладывает следующие запросы, и их ожидание в задержки не попадает.
+ * С --rate нагрузка открытая: запросы отправляются по расписанию с постоянной частотой, задержка отсчитывается
+ * от запланированного момента отправки, поэтому ожидание свободного потока тоже учитывается.
+ * Эндпоинт выбирается случайно с учетом весов, ответы во время прогрева не учитываются
+ */
+@RequiredArgsConstructor
+public class Workload {
+    private final ShareItClient client;
+    private final LoadTestProperties properties;
+    private final Dataset dataset;
+
+    /**
+     * Запуск нагрузки
+     *
+     * @return задержки по эндпоинтам за время измерения
+     */
+    public Map<Endpoint, LatencyRecorder> run() throws InterruptedException, ExecutionException {
+        Endpoint[] endpoints = properties.getMix().keySet().toArray(new Endpoint[0]);
+        int[] cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += properties.getMix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+
+        long firstSend = System.nanoTime();
+        long measureStart = firstSend + properties.getWarmup().toNanos();
+        long deadline = measureStart + properties.getDuration().toNanos();
+        Schedule schedule = properties.getRate() > 0
+                ? new Schedule(firstSend, TimeUnit.SECONDS.toNanos(1) / properties.getRate())
+                : null;
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            List<Future<Map<Endpoint, LatencyRecorder>>> workers = new ArrayList<>();
+            for (int i = 0; i < properties.getThreads(); i++) {
+                Random random = new Random(properties.getSeed() + i);
+                int weightSum = total;
+                workers.add(executor.submit(() -> work(endpoints, cumulativeWeights, weightSum, random,
+                        schedule, measureStart, deadline)));
+            }
+            Map<Endpoint, LatencyRecorder> result = new EnumMap<>(Endpoint.class);
+            for (Future<Map<Endpoint, LatencyRecorder>> worker : workers) {
+                worker.get().forEach((endpoint, recorder) ->
+                        result.computeIfAbsent(endpoint, e -> new LatencyRecorder()).merge(recorder));
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Endpoint, LatencyRecorder> work(Endpoint[] endpoints, int[] cumulativeWeights, int weightSum,
+                                                Random random, Schedule schedule, long measureStart,
+                                                long deadline) throws InterruptedException {
+        Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : endpoints) {
+            recorders.put(endpoint, new LatencyRecorder());
+        }
+        long now = System.nanoTime();
+        while (schedule != null || now < deadline) {
+            Endpoint endpoint = pick(endpoints, cumulativeWeights, random.nextInt(weightSum));
+            String uri = endpoint.uri(dataset, properties.getPageSize(), random);
+            long userId = dataset.randomUser(random);
+            long start;
+            if (schedule != null) {
+                start = schedule.next();
+                if (start >= deadline) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.sleep(start - System.nanoTime());
+            } else {
+                start = System.nanoTime();
+            }
+            boolean success;
+            try {
+                success = client.get(uri, userId, properties.isNdjson() && endpoint.isStreaming()) / 100 == 2;
+            } catch (IOException e) {
+                success = false;
+            }
+            now = System.nanoTime();
+            // в открытой модели учитываются все запросы, запланированные на время измерения
+            if (start >= measureStart && (schedule != null || now < deadline)) {
+                LatencyRecorder recorder = recorders.get(endpoint);
+                if (success) {
+                    recorder.record(now - start);
+                } else {
+                    recorder.recordError();
+                }
+            }
+        }
+        return recorders;
+    }
+
+    /**
+     * Расписание открытой модели: моменты отправки идут с постоянным интервалом, общим для всех потоков
+     */
+    @RequiredArgsConstructor
+    private static class Schedule {
+        private final long firstSend;
+        private final long intervalNanos;
+        private final AtomicLong sequence = new AtomicLong();
+
+        long next() {
+            return firstSend + sequence.getAndIncrement() * intervalNanos;
+        }
+    }
+
+    private static Endpoint pick(Endpoint[] endpoints, int[] cumulativeWeights, int value) {
+        for (int i = 0; i < endpoints.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+}
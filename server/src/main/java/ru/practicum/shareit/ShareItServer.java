@@ -2,11 +2,35 @@ package ru.practicum.shareit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
-@SpringBootApplication
+import java.time.Clock;
+
+/**
+ * R2DBC используется только реактивными эндпоинтами чтения, пул соединений для них создает ReactiveConfig
+ */
+@EnableScheduling
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class ShareItServer {
 	public static void main(String[] args) {
 		SpringApplication.run(ShareItServer.class, args);
 	}
 
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+
+	/**
+	 * ETag для GET-ответов, по которому gateway перепроверяет закэшированные ответы
+	 */
+	@Bean
+	public ShallowEtagHeaderFilter shallowEtagHeaderFilter() {
+		return new ShallowEtagHeaderFilter();
+	}
+
 }
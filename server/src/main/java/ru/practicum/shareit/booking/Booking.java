@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
@@ -15,9 +17,15 @@ import java.time.LocalDateTime;
 @Entity
 @Builder(toBuilder = true)
 @Table(name = "bookings")
+@EntityListeners(BookingStateListener.class)
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @GenericGenerator(name = "bookings_seq", strategy = "sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "bookings_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private long id;
     @Column(name = "start_date_time")
     private LocalDateTime start;
@@ -27,9 +35,15 @@ public class Booking {
     @ManyToOne
     private Item item;
     @JoinColumn(name = "booker_id")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     private User booker;
     @Enumerated(EnumType.STRING)
     private Status status;
+    @Enumerated(EnumType.STRING)
+    private State state;
 
+    public Booking(long id, LocalDateTime start, LocalDateTime end, Item item, User booker, Status status) {
+        this(id, start, end, item, booker, status, null);
+    }
 }
@@ -1,13 +1,25 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.dto.UpdateBookingDto;
+import ru.practicum.shareit.exception.ValidationException;
 
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+
+import static ru.practicum.shareit.stream.NdjsonResponses.ndjson;
 
 @Slf4j
 @RestController
@@ -17,6 +29,7 @@ public class BookingController {
 
     private static final String HEADER = "X-Sharer-User-Id";
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto addNewBooking(@RequestHeader(HEADER) long userId, @RequestBody NewBookingDto bookingDto) {
@@ -31,6 +44,20 @@ public class BookingController {
         return bookingService.updateBooking(userId, bookingId, approved);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDto> addNewBookings(@RequestHeader(HEADER) long userId,
+                                           @RequestBody List<NewBookingDto> bookingDtos) {
+        log.info("SERVER: User {} create {} bookings", userId, bookingDtos.size());
+        return bookingService.addNewBookings(userId, bookingDtos);
+    }
+
+    @PatchMapping("/batch")
+    public List<UpdateBookingDto> updateBookings(@RequestHeader(HEADER) long userId,
+                                                 @RequestParam Boolean approved, @RequestBody List<Long> bookingIds) {
+        log.info("SERVER: User {} update bookings {} set approval = {}", userId, bookingIds, approved);
+        return bookingService.updateBookings(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@RequestHeader(HEADER) long userId, @PathVariable long bookingId) {
         log.info("SERVER: User {} get booking id = {}", userId, bookingId);
@@ -41,8 +68,14 @@ public class BookingController {
     public List<BookingDto> getAllBookingsFromUser(@RequestHeader(HEADER) long userId,
                             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
                             @RequestParam(value = "from", required = false, defaultValue = "0") int from,
-                            @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+                            @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+                            @RequestParam(value = "cursorStart", required = false)
+                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+                            @RequestParam(value = "cursorId", required = false) Long cursorId) {
         log.info("SERVER: User {} get own bookings state = {}", userId, state);
+        if (isCursorRequest(cursorStart, cursorId)) {
+            return bookingService.getAllFromUser(userId, state, cursorStart, cursorId, size);
+        }
         return bookingService.getAllFromUser(userId, state, from, size);
     }
 
@@ -50,9 +83,51 @@ public class BookingController {
     public List<BookingDto> getAllBookingsForUsersItems(@RequestHeader(HEADER) long userId,
                             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
                             @RequestParam(value = "from", required = false, defaultValue = "0") int from,
-                            @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+                            @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+                            @RequestParam(value = "cursorStart", required = false)
+                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+                            @RequestParam(value = "cursorId", required = false) Long cursorId) {
         log.info("SERVER: User {} get bookings for items state = {}", userId, state);
+        if (isCursorRequest(cursorStart, cursorId)) {
+            return bookingService.getAllForItems(userId, state, cursorStart, cursorId, size);
+        }
         return bookingService.getAllForItems(userId, state, from, size);
     }
 
+    /**
+     * Вся история бронирований пользователя в формате NDJSON, по одному бронированию в строке
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsFromUser(@RequestHeader(HEADER) long userId,
+                            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+                            HttpServletRequest request) {
+        log.info("SERVER: User {} export own bookings state = {}", userId, state);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ndjson(objectMapper,
+                (Consumer<BookingDto> consumer) -> bookingService.streamAllFromUser(userId, state, consumer));
+    }
+
+    /**
+     * Вся история бронирований предметов пользователя в формате NDJSON, по одному бронированию в строке
+     */
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsForUsersItems(@RequestHeader(HEADER) long userId,
+                            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+                            HttpServletRequest request) {
+        log.info("SERVER: User {} export bookings for items state = {}", userId, state);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ndjson(objectMapper,
+                (Consumer<BookingDto> consumer) -> bookingService.streamAllForItems(userId, state, consumer));
+    }
+
+    /**
+     * Курсор (start, id) последнего полученного бронирования включает постраничный вывод без OFFSET
+     */
+    private boolean isCursorRequest(LocalDateTime cursorStart, Long cursorId) {
+        if ((cursorStart == null) != (cursorId == null)) {
+            throw new ValidationException("Курсор должен содержать cursorStart и cursorId");
+        }
+        return cursorId != null;
+    }
+
 }
@@ -0,0 +1,261 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Индекс занятых интервалов по предметам. Для каждого предмета хранится отсортированный по началу набор
+ * непересекающихся интервалов [start, end) бронирований в статусах WAITING и APPROVED, поэтому проверка
+ * свободного времени выполняется за O(log n) без обращения к таблице bookings. Завершившиеся интервалы
+ * удаляются, интервалы, начинающиеся раньше последней очистки, дополнительно проверяются по базе.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private static final List<Status> OCCUPYING = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    private volatile LocalDateTime prunedBefore = LocalDateTime.MIN;
+
+    /**
+     * Загрузка незавершенных бронирований при старте приложения
+     */
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = bookingRepository.findByStatusInAndEndAfter(OCCUPYING, now);
+        for (Booking booking : bookings) {
+            long itemId = booking.getItem().getId();
+            if (isFreeInIndex(itemId, booking.getStart(), booking.getEnd())) {
+                add(booking);
+            } else {
+                log.warn("Booking {} overlaps another booking of item {} and is not indexed", booking.getId(), itemId);
+            }
+        }
+        prunedBefore = now;
+        log.info("Booking interval index loaded {} bookings", bookings.size());
+    }
+
+    /**
+     * Проверка, что интервал [start, end) не пересекается с занятыми интервалами предмета
+     *
+     * @param itemId id предмета
+     * @param start начало интервала
+     * @param end окончание интервала
+     */
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!isFreeInIndex(itemId, start, end)) {
+            return false;
+        }
+        // завершившиеся интервалы удалены из индекса, поэтому бронирования в прошлом проверяются по базе
+        return !start.isBefore(prunedBefore)
+                || !bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, OCCUPYING, end, start);
+    }
+
+    private boolean isFreeInIndex(long itemId, LocalDateTime start, LocalDateTime end) {
+        Timeline timeline = timeline(itemId);
+        timeline.lock.lock();
+        try {
+            Map.Entry<LocalDateTime, Slot> before = timeline.slots.floorEntry(start);
+            if (before != null && before.getValue().end.isAfter(start)) {
+                return false;
+            }
+            Map.Entry<LocalDateTime, Slot> after = timeline.slots.higherEntry(start);
+            return after == null || !after.getKey().isBefore(end);
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Поиск ближайшего начала свободного интервала заданной длительности. Учитываются только интервалы,
+     * оставшиеся в индексе после последней очистки
+     *
+     * @param itemId id предмета
+     * @param from время, не раньше которого должен начинаться интервал
+     * @param duration длительность интервала
+     */
+    public LocalDateTime nextFreeSlot(long itemId, LocalDateTime from, Duration duration) {
+        Timeline timeline = timeline(itemId);
+        timeline.lock.lock();
+        try {
+            LocalDateTime candidate = from;
+            Map.Entry<LocalDateTime, Slot> before = timeline.slots.floorEntry(from);
+            if (before != null && before.getValue().end.isAfter(candidate)) {
+                candidate = before.getValue().end;
+            }
+            for (Map.Entry<LocalDateTime, Slot> slot : timeline.slots.tailMap(candidate, true).entrySet()) {
+                if (!slot.getKey().isBefore(candidate.plus(duration))) {
+                    break;
+                }
+                if (slot.getValue().end.isAfter(candidate)) {
+                    candidate = slot.getValue().end;
+                }
+            }
+            return candidate;
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Выполнение действия под блокировкой предметов. Блокировки берутся в порядке возрастания id,
+     * чтобы проверка свободного времени и сохранение бронирования выполнялись атомарно. Внутри транзакции
+     * блокировки снимаются после ее завершения, чтобы изменения индекса, отложенные до фиксации,
+     * применялись раньше следующей проверки
+     *
+     * @param itemIds id предметов
+     * @param action действие
+     */
+    public <T> T withItemsLocked(Collection<Long> itemIds, Supplier<T> action) {
+        List<ReentrantLock> locks = new ArrayList<>();
+        for (Long itemId : new TreeSet<>(itemIds)) {
+            locks.add(timeline(itemId).lock);
+        }
+        locks.forEach(ReentrantLock::lock);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unlock(locks);
+                }
+            });
+            return action.get();
+        }
+        try {
+            return action.get();
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    /**
+     * Изменение индекса после фиксации текущей транзакции, без транзакции - сразу. При откате индекс
+     * не меняется
+     *
+     * @param change изменение индекса
+     */
+    public static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    /**
+     * Добавление бронирования в индекс
+     *
+     * @param booking бронирование
+     */
+    public void add(Booking booking) {
+        Timeline timeline = timeline(booking.getItem().getId());
+        timeline.lock.lock();
+        try {
+            timeline.slots.put(booking.getStart(), new Slot(booking.getId(), booking.getEnd()));
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Удаление бронирования из индекса
+     *
+     * @param booking бронирование
+     */
+    public void remove(Booking booking) {
+        Timeline timeline = timeline(booking.getItem().getId());
+        timeline.lock.lock();
+        try {
+            Slot slot = timeline.slots.get(booking.getStart());
+            if (slot != null && slot.bookingId == booking.getId()) {
+                timeline.slots.remove(booking.getStart());
+            }
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Удаление завершившихся к указанному моменту интервалов, чтобы индекс не рос с историей бронирований.
+     * Интервалы, начинающиеся раньше этого момента, после очистки проверяются по базе
+     *
+     * @param now момент времени
+     */
+    public void prune(LocalDateTime now) {
+        int pruned = 0;
+        for (Timeline timeline : timelines.values()) {
+            timeline.lock.lock();
+            try {
+                // интервалы предмета не пересекаются, поэтому завершившиеся находятся в начале
+                while (!timeline.slots.isEmpty() && !timeline.slots.firstEntry().getValue().end.isAfter(now)) {
+                    timeline.slots.pollFirstEntry();
+                    pruned++;
+                }
+            } finally {
+                timeline.lock.unlock();
+            }
+        }
+        if (now.isAfter(prunedBefore)) {
+            prunedBefore = now;
+        }
+        if (pruned > 0) {
+            log.debug("Booking interval index pruned {} ended bookings", pruned);
+        }
+    }
+
+    /**
+     * Проверка, занимает ли бронирование с таким статусом время предмета
+     *
+     * @param status статус бронирования
+     */
+    public static boolean occupies(Status status) {
+        return OCCUPYING.contains(status);
+    }
+
+    private Timeline timeline(long itemId) {
+        return timelines.computeIfAbsent(itemId, id -> new Timeline());
+    }
+
+    private static class Timeline {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeMap<LocalDateTime, Slot> slots = new TreeMap<>();
+    }
+
+    @AllArgsConstructor
+    private static class Slot {
+        private final long bookingId;
+        private final LocalDateTime end;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Чтение страниц бронирований через R2DBC. Запросы повторяют выборки BookingRepository:
+ * те же условия {@link StateFilter} и тот же порядок start desc, id desc
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.reactive", name = "enabled", havingValue = "true")
+public class BookingReactiveRepository {
+    private static final int FETCH_SIZE = 100;
+
+    private static final String BOOKING_DTO = "select b.id, b.item_id, i.name as item_name, b.booker_id, " +
+            "b.start_date_time, b.end_date_time, b.status from bookings b join items i on i.id = b.item_id ";
+    private static final String STATE_FILTER = "b.status in (:statuses) and b.state in (:states) " +
+            "and b.start_date_time > :startAfter and b.start_date_time <= :startUntil " +
+            "and b.end_date_time >= :endFrom and b.end_date_time < :endBefore ";
+    private static final String PAGE = "order by b.start_date_time desc, b.id desc limit :limit offset :offset";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Получение страницы бронирований пользователя с учетом статуса и состояния
+     */
+    public Flux<BookingDto> findDtoByBookerId(long booker, StateFilter filter, long offset, int limit) {
+        return bindFilter(databaseClient.sql(BOOKING_DTO + "where b.booker_id = :user and " + STATE_FILTER + PAGE),
+                        filter)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("user", booker)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(BookingReactiveRepository::toBookingDto)
+                .all();
+    }
+
+    /**
+     * Получение страницы бронирований предметов пользователя с учетом статуса и состояния
+     */
+    public Flux<BookingDto> findDtoByItemOwnerId(long owner, StateFilter filter, long offset, int limit) {
+        return bindFilter(databaseClient.sql(BOOKING_DTO + "where i.owner_id = :user and " + STATE_FILTER + PAGE),
+                        filter)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("user", owner)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(BookingReactiveRepository::toBookingDto)
+                .all();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFilter(DatabaseClient.GenericExecuteSpec spec,
+                                                                StateFilter filter) {
+        return spec.bind("statuses", names(filter.getStatuses()))
+                .bind("states", names(filter.getStates()))
+                .bind("startAfter", filter.getStartAfter())
+                .bind("startUntil", filter.getStartUntil())
+                .bind("endFrom", filter.getEndFrom())
+                .bind("endBefore", filter.getEndBefore());
+    }
+
+    private static BookingDto toBookingDto(Row row) {
+        return new BookingDto(
+                row.get("id", Long.class),
+                row.get("item_id", Long.class),
+                row.get("item_name", String.class),
+                row.get("booker_id", Long.class),
+                row.get("start_date_time", LocalDateTime.class),
+                row.get("end_date_time", LocalDateTime.class),
+                Status.valueOf(row.get("status", String.class)));
+    }
+
+    private static Collection<String> names(Collection<? extends Enum<?>> values) {
+        return values.stream()
+                .map(Enum::name)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,81 +1,153 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingDto;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     /**
-     * Получение страницы бронирований пользователя с учетом статуса
+     * Выборка полей BookingDto без загрузки сущностей бронирования, предмета и пользователя
      */
-    Page<Booking> findByBookerIdAndStatusOrderByStartDesc(long booker, Status status, Pageable pageable);
+    String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, i.id, i.name, b.booker.id, b.start, b.end, b.status) from Booking b join b.item i ";
 
     /**
-     * Получение страницы бронирований пользователя
+     * Условия {@link StateFilter} по статусу, сохраненному состоянию и времени начала и окончания. Параметр
+     * с фильтром должен называться filter
      */
-    Page<Booking> findByBookerIdOrderByStartDesc(long booker, Pageable pageable);
+    String STATE_FILTER = "b.status in :#{#filter.statuses} and b.state in :#{#filter.states} " +
+            "and b.start > :#{#filter.startAfter} and b.start <= :#{#filter.startUntil} " +
+            "and b.end >= :#{#filter.endFrom} and b.end < :#{#filter.endBefore} ";
 
     /**
-     * Получение страницы будущих бронирований пользователя
+     * Бронирования предметов пользователя
      */
-    Page<Booking> findByBookerIdAndStartAfterOrderByStartDesc(long booker, LocalDateTime start, Pageable pageable);
+    String OWNER_ITEMS = "b.item.id in (select o.id from Item o where o.owner.id = :owner) ";
 
     /**
-     * Получение страницы прошедших бронирований пользователя
+     * Получение страницы бронирований пользователя с учетом статуса и состояния
      */
-    Page<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(long booker, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_DTO + "where b.booker.id = :booker and " + STATE_FILTER + "order by b.start desc, b.id desc")
+    Slice<BookingDto> findDtoByBookerId(long booker, StateFilter filter, Pageable pageable);
 
     /**
      * Получение списка прошедших бронирований пользователя для проверки, что он брал вещь в аренду
      */
+    @Query("select b from Booking b where b.booker.id = :booker and b.end < :end")
     List<Booking> findByBookerIdAndEndBefore(long booker, LocalDateTime end);
 
     /**
-     * Получений страницы текущих бронирований пользователя
+     * Получение страницы бронирований предметов пользователя с учетом статуса и состояния
      */
-    Page<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            long booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where " + OWNER_ITEMS + "and " + STATE_FILTER + "order by b.start desc, b.id desc")
+    Slice<Booking> findByItemOwnerId(long owner, StateFilter filter, Pageable pageable);
 
     /**
-     * Получение страницы бронирований предметов пользователя с учетом статуса
+     * Получение страницы бронирований пользователя, начинающейся после курсора (start, id)
      */
-    Page<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(long owner, Status status, Pageable pageable);
+    @Query(BOOKING_DTO + "where b.booker.id = :booker and " + STATE_FILTER +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findDtoByBookerIdBeforeCursor(long booker, StateFilter filter, LocalDateTime cursorStart,
+                                                    long cursorId, Pageable pageable);
 
     /**
-     * Получение страницы бронирований предметов пользователя
+     * Получение страницы бронирований предметов пользователя, начинающейся после курсора (start, id)
      */
-    Page<Booking> findByItemOwnerIdOrderByStartDesc(long owner, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where " + OWNER_ITEMS + "and " + STATE_FILTER +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    Slice<Booking> findByItemOwnerIdBeforeCursor(long owner, StateFilter filter, LocalDateTime cursorStart,
+                                                 long cursorId, Pageable pageable);
 
     /**
-     * Получение страницы будущих бронирований предметов пользователя
+     * Потоковое чтение всех бронирований пользователя с учетом статуса и состояния. Должно выполняться в транзакции
      */
-    Page<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(long owner, LocalDateTime localDateTime, Pageable pageable);
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(BOOKING_DTO + "where b.booker.id = :booker and " + STATE_FILTER + "order by b.start desc, b.id desc")
+    Stream<BookingDto> streamDtoByBookerId(long booker, StateFilter filter);
 
     /**
-     * Получение страницы прошедших бронирований предметов пользователя
+     * Потоковое чтение всех бронирований предметов пользователя с учетом статуса и состояния. Должно выполняться
+     * в транзакции
      */
-    Page<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(long owner, LocalDateTime localDateTime, Pageable pageable);
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(BOOKING_DTO + "where i.owner.id = :owner and " + STATE_FILTER + "order by b.start desc, b.id desc")
+    Stream<BookingDto> streamDtoByItemOwnerId(long owner, StateFilter filter);
 
     /**
-     * Получений страницы текущих бронирований предметов пользователя
+     * Перевод закончившихся бронирований в указанное состояние
      */
-    Page<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            long owner, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Modifying
+    @Query("update Booking b set b.state = :to where b.state in :from and b.start <= :now and b.end < :now")
+    int updateStateByEndBefore(Collection<State> from, State to, LocalDateTime now);
 
     /**
-     * Получние последнего бронирования
+     * Перевод начавшихся бронирований в указанное состояние
      */
-    Booking getFirstByItemIdOrderByEndDesc(long itemId);
+    @Modifying
+    @Query("update Booking b set b.state = :to where b.state in :from and b.start <= :now")
+    int updateStateByStartNotAfter(Collection<State> from, State to, LocalDateTime now);
 
     /**
-     * Получение следующего бронирования
+     * Получение бронирования вместе с предметом и арендатором
      */
-    Booking getFirstByItemIdOrderByStartAsc(long itemId);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
+    /**
+     * Получение бронирований по id одним запросом вместе с предметами, их владельцами и арендаторами
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Получение незавершенных бронирований с указанными статусами
+     */
+    List<Booking> findByStatusInAndEndAfter(Collection<Status> statuses, LocalDateTime end);
+
+    /**
+     * Проверка, что у предмета есть бронирование с одним из статусов, пересекающее интервал [start, end)
+     */
+    @Query("select case when count(b) > 0 then true else false end from Booking b where b.item.id = :itemId " +
+            "and b.status in :statuses and b.start < :end and b.end > :start")
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(long itemId, Collection<Status> statuses,
+                                                              LocalDateTime end, LocalDateTime start);
+
+    /**
+     * Получение завершенных бронирований предмета с указанным статусом, начиная с последнего
+     */
+    @Query("select b from Booking b where b.item.id = :itemId and b.status = :status and b.end < :end " +
+            "order by b.end desc")
+    List<Booking> findByItemIdAndStatusAndEndBeforeOrderByEndDesc(long itemId, Status status, LocalDateTime end,
+                                                                  Pageable pageable);
+
+    /**
+     * Получение последних завершенных бронирований с указанным статусом для всех предметов одним запросом
+     *
+     * @param status статус бронирования
+     * @param now момент времени
+     */
+    @EntityGraph(attributePaths = "item")
+    @Query("select b from Booking b where b.status = :status and b.end = (select max(l.end) from Booking l " +
+            "where l.item.id = b.item.id and l.status = :status and l.end < :now)")
+    List<Booking> findLastByStatusAndEndBefore(Status status, LocalDateTime now);
 }
 
 
@@ -4,7 +4,9 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.dto.UpdateBookingDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -18,6 +20,16 @@ public interface BookingService {
      */
     UpdateBookingDto updateBooking(long userId, long bookingId, Boolean approved);
 
+    /**
+     * Добавление нескольких бронирований одной транзакцией
+     */
+    List<BookingDto> addNewBookings(long userId, List<NewBookingDto> bookingDtos);
+
+    /**
+     * Подтверждение или отклонение нескольких бронирований одной транзакцией
+     */
+    List<UpdateBookingDto> updateBookings(long userId, List<Long> bookingIds, Boolean approved);
+
     /**
      * Поиск бронирования
      */
@@ -32,4 +44,24 @@ public interface BookingService {
      * Получние списка бронирования для всех предметов пользователя
      */
     List<BookingDto> getAllForItems(long userId, String state, int from, int size);
+
+    /**
+     * Получение страницы бронирований пользователя после курсора
+     */
+    List<BookingDto> getAllFromUser(long userId, String state, LocalDateTime cursorStart, long cursorId, int size);
+
+    /**
+     * Получение страницы бронирований для всех предметов пользователя после курсора
+     */
+    List<BookingDto> getAllForItems(long userId, String state, LocalDateTime cursorStart, long cursorId, int size);
+
+    /**
+     * Потоковая выдача всех бронирований пользователя без загрузки их в память целиком
+     */
+    void streamAllFromUser(long userId, String state, Consumer<BookingDto> consumer);
+
+    /**
+     * Потоковая выдача всех бронирований для предметов пользователя без загрузки их в память целиком
+     */
+    void streamAllForItems(long userId, String state, Consumer<BookingDto> consumer);
 }
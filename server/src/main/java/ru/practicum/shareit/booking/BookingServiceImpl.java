@@ -1,33 +1,48 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.dto.UpdateBookingDto;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemLookupCache;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserLookupCache;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
-
-    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+    private final BookingIntervalIndex bookingIndex;
+    private final LastNextBookingIndex lastNextIndex;
+    private final BookingStateClassifier classifier;
+    private final UserLookupCache userCache;
+    private final ItemLookupCache itemCache;
 
     /**
      * Добавление нового бронирования
@@ -37,8 +52,8 @@ public class BookingServiceImpl implements BookingService {
      */
     @Override
     public BookingDto addNewBooking(long userId, NewBookingDto booking) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
-        Item item = itemRepository.findById(booking.getItemId())
+        User user = userCache.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        Item item = itemCache.findById(booking.getItemId())
                 .orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
         if (!item.getAvailable()) {
             throw new ValidationException("Предмет не доступен");
@@ -46,7 +61,17 @@ public class BookingServiceImpl implements BookingService {
         if (userId == item.getOwner().getId()) {
             throw new UserNotFoundException("Owner");
         }
-        Booking newBooking = bookingRepository.save(BookingMapper.toBooking(booking, user, item, Status.WAITING));
+        if (booking.getStart() == null || booking.getEnd() == null || !booking.getEnd().isAfter(booking.getStart())) {
+            throw new ValidationException("Некорректное время бронирования");
+        }
+        Booking newBooking = bookingIndex.withItemsLocked(List.of(item.getId()), () -> {
+            if (!bookingIndex.isFree(item.getId(), booking.getStart(), booking.getEnd())) {
+                throw new BookingConflictException("Время уже забронировано");
+            }
+            Booking saved = bookingRepository.save(BookingMapper.toBooking(booking, user, item, Status.WAITING));
+            bookingIndex.add(saved);
+            return saved;
+        });
         return BookingMapper.toBookingDto(newBooking);
     }
 
@@ -64,15 +89,161 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() == Status.APPROVED) {
             throw new ValidationException("Статус уже изменен");
         }
-        User owner = itemRepository.findById(booking.getItem().getId()).orElseThrow().getOwner();
-        if (userId != owner.getId()) {
+        if (userId != booking.getItem().getOwner().getId()) {
             throw new UserNotFoundException("Доступ запрещен");
         }
-        booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-        Booking updated = bookingRepository.save(booking);
+        Booking updated = bookingIndex.withItemsLocked(List.of(booking.getItem().getId()), () -> {
+            // отклоненное ранее бронирование может снова занять время, только если оно свободно
+            if (approved && !BookingIntervalIndex.occupies(booking.getStatus())
+                    && !bookingIndex.isFree(booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+                throw new BookingConflictException("Время уже забронировано");
+            }
+            booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
+            Booking saved = bookingRepository.save(booking);
+            if (approved) {
+                bookingIndex.add(saved);
+                lastNextIndex.add(saved);
+            } else {
+                bookingIndex.remove(saved);
+                lastNextIndex.remove(saved);
+            }
+            return saved;
+        });
         return BookingMapper.toUpdateBookingDto(updated);
     }
 
+    /**
+     * Добавление нескольких бронирований. Пользователь и предметы загружаются одним запросом каждый,
+     * пересечения проверяются для всего пакета сразу, бронирования сохраняются одной транзакцией. Индекс
+     * занятых интервалов обновляется после ее фиксации
+     *
+     * @param userId id пользователя
+     * @param bookingDtos dto бронирований
+     */
+    @Override
+    @Transactional
+    public List<BookingDto> addNewBookings(long userId, List<NewBookingDto> bookingDtos) {
+        for (NewBookingDto booking : bookingDtos) {
+            if (booking.getStart() == null || booking.getEnd() == null || !booking.getEnd().isAfter(booking.getStart())) {
+                throw new ValidationException("Некорректное время бронирования");
+            }
+        }
+        User user = userCache.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        if (bookingDtos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(NewBookingDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Booking> bookings = new ArrayList<>();
+        for (NewBookingDto booking : bookingDtos) {
+            Item item = items.get(booking.getItemId());
+            if (item == null) {
+                throw new ItemNotFoundException("Предмет не найден");
+            }
+            if (!item.getAvailable()) {
+                throw new ValidationException("Предмет не доступен");
+            }
+            if (userId == item.getOwner().getId()) {
+                throw new UserNotFoundException("Owner");
+            }
+            Booking newBooking = BookingMapper.toBooking(booking, user, item, Status.WAITING);
+            bookings.add(newBooking);
+        }
+        List<Booking> saved = bookingIndex.withItemsLocked(itemIds, () -> {
+            checkFree(bookings);
+            List<Booking> result = bookingRepository.saveAllAndFlush(bookings);
+            BookingIntervalIndex.afterCommit(() -> result.forEach(bookingIndex::add));
+            return result;
+        });
+        return BookingMapper.toBookingDto(saved);
+    }
+
+    /**
+     * Подтверждение или отклонение нескольких бронирований. Бронирования вместе с предметами загружаются
+     * одним запросом, изменения сохраняются одной транзакцией. Индексы бронирований обновляются после ее фиксации
+     *
+     * @param userId id пользователя
+     * @param bookingIds id бронирований
+     * @param approved подтверждены бронирования или отклонены
+     */
+    @Override
+    @Transactional
+    public List<UpdateBookingDto> updateBookings(long userId, List<Long> bookingIds, Boolean approved) {
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Booking> found = bookingRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> bookings = new ArrayList<>();
+        for (Long id : ids) {
+            Booking booking = found.get(id);
+            if (booking == null) {
+                throw new ItemNotFoundException("Бронирование не найдено");
+            }
+            if (booking.getStatus() == Status.APPROVED) {
+                throw new ValidationException("Статус уже изменен");
+            }
+            if (userId != booking.getItem().getOwner().getId()) {
+                throw new UserNotFoundException("Доступ запрещен");
+            }
+            bookings.add(booking);
+        }
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        List<Booking> updated = bookingIndex.withItemsLocked(itemIds, () -> {
+            // отклоненные ранее бронирования могут снова занять время, только если оно свободно
+            if (approved) {
+                checkFree(bookings.stream()
+                        .filter(booking -> !BookingIntervalIndex.occupies(booking.getStatus()))
+                        .collect(Collectors.toList()));
+            }
+            bookings.forEach(booking -> booking.setStatus(approved ? Status.APPROVED : Status.REJECTED));
+            List<Booking> result = bookingRepository.saveAllAndFlush(bookings);
+            BookingIntervalIndex.afterCommit(() -> {
+                for (Booking booking : result) {
+                    if (approved) {
+                        bookingIndex.add(booking);
+                        lastNextIndex.add(booking);
+                    } else {
+                        bookingIndex.remove(booking);
+                        lastNextIndex.remove(booking);
+                    }
+                }
+            });
+            return result;
+        });
+        return updated.stream()
+                .map(BookingMapper::toUpdateBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Проверка, что бронирования не пересекаются с занятым временем предметов и друг с другом.
+     * Выполняется под блокировкой всех предметов пакета
+     *
+     * @param bookings бронирования
+     */
+    private void checkFree(List<Booking> bookings) {
+        Map<Long, List<Booking>> byItem = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        for (List<Booking> itemBookings : byItem.values()) {
+            itemBookings.sort(Comparator.comparing(Booking::getStart));
+            Booking previous = null;
+            for (Booking booking : itemBookings) {
+                if ((previous != null && previous.getEnd().isAfter(booking.getStart()))
+                        || !bookingIndex.isFree(booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+                    throw new BookingConflictException("Время уже забронировано");
+                }
+                previous = booking;
+            }
+        }
+    }
+
     /**
      * Поиск бронирования по id
      *
@@ -80,8 +251,9 @@ public class BookingServiceImpl implements BookingService {
      * @param bookingId id бронирования
      */
     @Override
+    @Transactional(readOnly = true)
     public BookingDto findBooking(long userId, long bookingId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        checkUserExists(userId);
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ItemNotFoundException("Бронирование не найдено"));
         if (userId != booking.getBooker().getId() && userId != booking.getItem().getOwner().getId()) {
@@ -97,33 +269,11 @@ public class BookingServiceImpl implements BookingService {
      * @param state состояние бронирования
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllFromUser(long userId, String state, int from, int size) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
-        Pageable pageable = PageRequest.of(from, size);
-        Page<Booking> page;
-        switch (state) {
-            case ("CURRENT") :
-                page = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, NOW, NOW, pageable);
-                break;
-            case ("FUTURE") :
-                page = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, NOW, pageable);
-                break;
-            case ("PAST") :
-                page = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, NOW, pageable);
-                break;
-            case ("WAITING") :
-                page = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                break;
-            case ("REJECTED") :
-                page = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable);
-                break;
-            case ("ALL"):
-                page = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
-                break;
-            default:
-                throw new ValidationException("Unknown state: " + state);
-        }
-        return BookingMapper.toBookingDto(page.getContent());
+        checkUserExists(userId);
+        StateFilter filter = StateFilter.of(state, classifier.now());
+        return bookingRepository.findDtoByBookerId(userId, filter, PageRequest.of(from, size)).getContent();
     }
 
     /**
@@ -133,35 +283,107 @@ public class BookingServiceImpl implements BookingService {
      * @param state состояние бронирования
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllForItems(long userId, String state, int from, int size) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        checkUserExists(userId);
         Pageable pageable = PageRequest.of(from, size);
-        if (itemRepository.findByOwnerId(userId, pageable).getContent().size() == 0) {
+        if (!itemRepository.existsByOwnerId(userId)) {
             throw new ValidationException("Предметы не найдены");
         }
-        Page<Booking> bookings;
-        switch (state) {
-            case ("CURRENT") :
-                bookings = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, NOW, NOW, pageable);
-                break;
-            case ("FUTURE") :
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(userId, NOW, pageable);
-                break;
-            case ("PAST") :
-                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, NOW, pageable);
-                break;
-            case ("WAITING") :
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                break;
-            case ("REJECTED") :
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable);
-                break;
-            case ("ALL") :
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, pageable);
-                break;
-            default:
-                throw new ValidationException("Unknown state: " + state);
-        }
+        StateFilter filter = StateFilter.of(state, classifier.now());
+        Slice<Booking> bookings = bookingRepository.findByItemOwnerId(userId, filter, pageable);
         return BookingMapper.toBookingDto(bookings.getContent());
     }
+
+    /**
+     * Получение страницы бронирований пользователя после курсора (start, id) последнего полученного бронирования
+     *
+     * @param userId id пользователя
+     * @param state состояние бронирования
+     * @param cursorStart начало последнего полученного бронирования
+     * @param cursorId id последнего полученного бронирования
+     * @param size количество элементов для отображения
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllFromUser(long userId, String state, LocalDateTime cursorStart, long cursorId,
+                                           int size) {
+        checkUserExists(userId);
+        StateFilter filter = StateFilter.of(state, classifier.now());
+        return bookingRepository.findDtoByBookerIdBeforeCursor(userId, filter, cursorStart, cursorId,
+                PageRequest.of(0, size)).getContent();
+    }
+
+    /**
+     * Получение страницы бронирований предметов пользователя после курсора (start, id) последнего полученного
+     * бронирования
+     *
+     * @param userId id пользователя
+     * @param state состояние бронирования
+     * @param cursorStart начало последнего полученного бронирования
+     * @param cursorId id последнего полученного бронирования
+     * @param size количество элементов для отображения
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllForItems(long userId, String state, LocalDateTime cursorStart, long cursorId,
+                                           int size) {
+        checkUserExists(userId);
+        if (!itemRepository.existsByOwnerId(userId)) {
+            throw new ValidationException("Предметы не найдены");
+        }
+        StateFilter filter = StateFilter.of(state, classifier.now());
+        Slice<Booking> page = bookingRepository.findByItemOwnerIdBeforeCursor(userId, filter, cursorStart, cursorId,
+                PageRequest.of(0, size));
+        return BookingMapper.toBookingDto(page.getContent());
+    }
+
+    /**
+     * Потоковая выдача всех бронирований пользователя. Бронирования читаются курсором базы сразу в dto,
+     * поэтому контекст персистентности не растет с длиной выдачи
+     *
+     * @param userId id пользователя
+     * @param state состояние бронирования
+     * @param consumer получатель бронирований
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllFromUser(long userId, String state, Consumer<BookingDto> consumer) {
+        checkUserExists(userId);
+        StateFilter filter = StateFilter.of(state, classifier.now());
+        try (Stream<BookingDto> bookings = bookingRepository.streamDtoByBookerId(userId, filter)) {
+            bookings.forEach(consumer);
+        }
+    }
+
+    /**
+     * Потоковая выдача всех бронирований предметов пользователя
+     *
+     * @param userId id пользователя
+     * @param state состояние бронирования
+     * @param consumer получатель бронирований
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllForItems(long userId, String state, Consumer<BookingDto> consumer) {
+        checkUserExists(userId);
+        if (!itemRepository.existsByOwnerId(userId)) {
+            throw new ValidationException("Предметы не найдены");
+        }
+        StateFilter filter = StateFilter.of(state, classifier.now());
+        try (Stream<BookingDto> bookings = bookingRepository.streamDtoByItemOwnerId(userId, filter)) {
+            bookings.forEach(consumer);
+        }
+    }
+
+    /**
+     * Проверка существования пользователя
+     *
+     * @param userId id пользователя
+     */
+    private void checkUserExists(long userId) {
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден");
+        }
+    }
 }
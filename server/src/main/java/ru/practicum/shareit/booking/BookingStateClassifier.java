@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Определение состояния бронирования относительно текущего времени. Время берется из {@link Clock},
+ * поэтому состояние вычисляется на момент запроса, а не на момент старта приложения.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingStateClassifier {
+    private final Clock clock;
+
+    /**
+     * Текущее время
+     */
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * Состояние бронирования на текущий момент
+     *
+     * @param start начало бронирования
+     * @param end окончание бронирования
+     */
+    public State classify(LocalDateTime start, LocalDateTime end) {
+        return classify(start, end, now());
+    }
+
+    /**
+     * Состояние бронирования на указанный момент. Бронирование в прошлом, если оно началось и закончилось до now,
+     * в будущем, если оно начинается после now, иначе текущее
+     *
+     * @param start начало бронирования
+     * @param end окончание бронирования
+     * @param now момент времени
+     */
+    public static State classify(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start.isAfter(now)) {
+            return State.FUTURE;
+        }
+        return end.isBefore(now) ? State.PAST : State.CURRENT;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * Заполнение состояния бронирования при каждой записи в таблицу bookings
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingStateListener {
+    private final BookingStateClassifier classifier;
+
+    @PrePersist
+    @PreUpdate
+    public void classify(Booking booking) {
+        if (booking.getStart() != null && booking.getEnd() != null) {
+            booking.setState(classifier.classify(booking.getStart(), booking.getEnd()));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Периодический перевод бронирований в следующее состояние по мере наступления начала и окончания.
+ * Обновляются только бронирования, пересекшие границу с прошлого запуска. Завершившиеся интервалы
+ * удаляются из индекса занятого времени. Списки проверяют состояние по времени на момент запроса
+ * (см. {@link StateFilter}), сохраненное состояние только сужает выборку по индексу, поэтому запуск редкий.
+ * Индексы в памяти обновляет только этот процесс, поэтому с базой работает один экземпляр сервера
+ * (см. {@link SingleInstanceLock})
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingStateSweeper {
+    private final BookingRepository bookingRepository;
+    private final BookingStateClassifier classifier;
+    private final LastNextBookingIndex lastNextIndex;
+    private final BookingIntervalIndex bookingIndex;
+
+    /**
+     * Обновление состояний на текущий момент
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.booking.state-sweep-delay:60000}",
+            initialDelayString = "${shareit.booking.state-sweep-delay:60000}")
+    public void sweep() {
+        sweep(classifier.now());
+    }
+
+    /**
+     * Обновление состояний на указанный момент
+     *
+     * @param now момент времени
+     */
+    @Transactional
+    public void sweep(LocalDateTime now) {
+        int past = bookingRepository.updateStateByEndBefore(List.of(State.FUTURE, State.CURRENT), State.PAST, now);
+        int current = bookingRepository.updateStateByStartNotAfter(List.of(State.FUTURE), State.CURRENT, now);
+        lastNextIndex.rollForward(now);
+        bookingIndex.prune(now);
+        if (past + current > 0) {
+            log.debug("Booking states swept: {} past, {} current", past, current);
+        }
+    }
+}
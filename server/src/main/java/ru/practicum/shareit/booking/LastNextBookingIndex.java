@@ -0,0 +1,183 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.LastNextBookingDto;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Последнее завершенное и ближайшее будущее подтвержденное бронирование каждого предмета. Для предмета хранится
+ * последнее завершенное бронирование и отсортированные по началу незавершенные. Завершившиеся бронирования
+ * переносятся в последние при чтении и при периодическом обновлении состояний, поэтому карточка предмета
+ * читается без запросов к таблице bookings.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastNextBookingIndex {
+    private static final Comparator<Entry> BY_START = Comparator.comparing((Entry entry) -> entry.start)
+            .thenComparingLong(entry -> entry.id);
+
+    private final BookingRepository bookingRepository;
+    private final BookingStateClassifier classifier;
+
+    private final Map<Long, Summary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Загрузка последних завершенных и незавершенных подтвержденных бронирований при старте приложения
+     */
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime now = classifier.now();
+        List<Booking> last = bookingRepository.findLastByStatusAndEndBefore(Status.APPROVED, now);
+        List<Booking> pending = bookingRepository.findByStatusInAndEndAfter(List.of(Status.APPROVED), now);
+        last.forEach(this::add);
+        pending.forEach(this::add);
+        log.info("Last/next booking index loaded {} items", summaries.size());
+    }
+
+    /**
+     * Добавление подтвержденного бронирования
+     *
+     * @param booking бронирование
+     */
+    public void add(Booking booking) {
+        Summary summary = summaries.computeIfAbsent(booking.getItem().getId(), id -> new Summary());
+        summary.lock.lock();
+        try {
+            summary.pending.add(new Entry(booking.getId(), booking.getBooker().getId(), booking.getStart(),
+                    booking.getEnd()));
+            summary.roll(classifier.now());
+        } finally {
+            summary.lock.unlock();
+        }
+    }
+
+    /**
+     * Удаление бронирования, которое больше не подтверждено. Если это было последнее завершенное бронирование,
+     * последнее загружается из базы заново
+     *
+     * @param booking бронирование
+     */
+    public void remove(Booking booking) {
+        long itemId = booking.getItem().getId();
+        Summary summary = summaries.get(itemId);
+        if (summary == null) {
+            return;
+        }
+        summary.lock.lock();
+        try {
+            summary.pending.removeIf(entry -> entry.id == booking.getId());
+            if (summary.last != null && summary.last.id == booking.getId()) {
+                summary.last = bookingRepository.findByItemIdAndStatusAndEndBeforeOrderByEndDesc(itemId,
+                                Status.APPROVED, classifier.now(), PageRequest.of(0, 1)).stream()
+                        .findFirst()
+                        .map(last -> new Entry(last.getId(), last.getBooker().getId(), last.getStart(), last.getEnd()))
+                        .orElse(null);
+            }
+        } finally {
+            summary.lock.unlock();
+        }
+    }
+
+    /**
+     * Последнее завершенное подтвержденное бронирование предмета
+     *
+     * @param itemId id предмета
+     */
+    public LastNextBookingDto last(long itemId) {
+        Summary summary = summaries.get(itemId);
+        if (summary == null) {
+            return null;
+        }
+        summary.lock.lock();
+        try {
+            summary.roll(classifier.now());
+            return summary.last == null ? null : summary.last.toDto();
+        } finally {
+            summary.lock.unlock();
+        }
+    }
+
+    /**
+     * Ближайшее подтвержденное бронирование предмета, которое еще не началось
+     *
+     * @param itemId id предмета
+     */
+    public LastNextBookingDto next(long itemId) {
+        Summary summary = summaries.get(itemId);
+        if (summary == null) {
+            return null;
+        }
+        summary.lock.lock();
+        try {
+            LocalDateTime now = classifier.now();
+            summary.roll(now);
+            Entry next = summary.pending.higher(new Entry(Long.MAX_VALUE, 0, now, now));
+            return next == null ? null : next.toDto();
+        } finally {
+            summary.lock.unlock();
+        }
+    }
+
+    /**
+     * Перенос завершившихся к указанному моменту бронирований всех предметов в последние
+     *
+     * @param now момент времени
+     */
+    public void rollForward(LocalDateTime now) {
+        for (Summary summary : summaries.values()) {
+            summary.lock.lock();
+            try {
+                summary.roll(now);
+            } finally {
+                summary.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Блокировка, а не synchronized: при удалении под ней читается база, а монитор закреплял бы
+     * виртуальный поток за потоком-носителем
+     */
+    private static class Summary {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeSet<Entry> pending = new TreeSet<>(BY_START);
+        private Entry last;
+
+        /**
+         * Подтвержденные бронирования предмета не пересекаются, поэтому завершившиеся находятся в начале набора
+         */
+        private void roll(LocalDateTime now) {
+            while (!pending.isEmpty() && pending.first().end.isBefore(now)) {
+                Entry ended = pending.pollFirst();
+                if (last == null || ended.end.isAfter(last.end)) {
+                    last = ended;
+                }
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final long id;
+        private final long bookerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private LastNextBookingDto toDto() {
+            return new LastNextBookingDto(id, bookerId);
+        }
+    }
+}
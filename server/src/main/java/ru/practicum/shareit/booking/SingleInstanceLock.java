@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Индексы бронирований {@link BookingIntervalIndex} и {@link LastNextBookingIndex} хранятся в памяти процесса
+ * и загружаются при старте, изменения другого экземпляра сервера в них не попадают. Поэтому с одной базой
+ * PostgreSQL работает один экземпляр: при старте он берет сессионную advisory-блокировку на отдельном
+ * соединении, второй экземпляр не запускается. Блокировка снимается при остановке или обрыве соединения
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SingleInstanceLock {
+    private static final long LOCK_KEY = "shareit-server".hashCode();
+
+    private final DataSource dataSource;
+
+    private Connection connection;
+
+    @PostConstruct
+    public void acquire() throws SQLException {
+        Connection candidate = dataSource.getConnection();
+        try {
+            if (!"PostgreSQL".equals(candidate.getMetaData().getDatabaseProductName())) {
+                candidate.close();
+                return;
+            }
+            try (PreparedStatement statement = candidate.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, LOCK_KEY);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    if (!rs.getBoolean(1)) {
+                        throw new IllegalStateException("С базой уже работает другой экземпляр shareit-server");
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            candidate.close();
+            throw e;
+        }
+        connection = candidate;
+        log.info("Single instance lock acquired");
+    }
+
+    @PreDestroy
+    public void release() throws SQLException {
+        if (connection != null) {
+            // соединение возвращается в пул открытым, поэтому блокировка снимается явно
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                statement.setLong(1, LOCK_KEY);
+                statement.execute();
+            } finally {
+                connection.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking;
+
+public enum State {
+    FUTURE,
+    CURRENT,
+    PAST
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Условия выборки бронирований по состоянию для запросов со списками статусов и состояний. Сохраненное состояние
+ * обновляется периодически и может отставать от фактического, но не опережать его, поэтому по нему отбираются
+ * кандидаты, а фактическое состояние на момент запроса проверяется по времени начала и окончания так же, как
+ * в {@link BookingStateClassifier#classify(LocalDateTime, LocalDateTime, LocalDateTime)}
+ */
+@Getter
+public class StateFilter {
+    private static final LocalDateTime MIN = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime MAX = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private List<Status> statuses = List.of(Status.values());
+    private List<State> states = List.of(State.values());
+    private LocalDateTime startAfter = MIN;
+    private LocalDateTime startUntil = MAX;
+    private LocalDateTime endFrom = MIN;
+    private LocalDateTime endBefore = MAX;
+
+    /**
+     * Условия выборки для состояния из запроса
+     *
+     * @param state состояние бронирования или статус
+     * @param now момент, на который определяется состояние
+     */
+    public static StateFilter of(String state, LocalDateTime now) {
+        StateFilter filter = new StateFilter();
+        switch (state) {
+            case ("CURRENT") :
+                filter.states = List.of(State.FUTURE, State.CURRENT);
+                filter.startUntil = now;
+                filter.endFrom = now;
+                break;
+            case ("FUTURE") :
+                filter.states = List.of(State.FUTURE);
+                filter.startAfter = now;
+                break;
+            case ("PAST") :
+                filter.endBefore = now;
+                break;
+            case ("WAITING") :
+                filter.statuses = List.of(Status.WAITING);
+                break;
+            case ("REJECTED") :
+                filter.statuses = List.of(Status.REJECTED);
+                break;
+            case ("ALL") :
+                break;
+            default:
+                throw new ValidationException("Unknown state: " + state);
+        }
+        return filter;
+    }
+}
@@ -20,6 +20,14 @@ public class BookingDto {
     private LocalDateTime end;
     private Status status;
 
+    /**
+     * Конструктор для выборки dto запросом, без загрузки сущностей
+     */
+    public BookingDto(long id, long itemId, String itemName, long bookerId, LocalDateTime start, LocalDateTime end,
+                      Status status) {
+        this(id, new Item(itemId, itemName), new User(bookerId), start, end, status);
+    }
+
     @Builder(toBuilder = true)
     @Data
     @AllArgsConstructor
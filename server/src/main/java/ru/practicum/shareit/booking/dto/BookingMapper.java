@@ -41,7 +41,6 @@ public class BookingMapper {
 
     public static Booking toBooking(NewBookingDto bookingDto, User user, Item item, Status status) {
         Booking booking = new Booking();
-        booking.setId(bookingDto.getId());
         booking.setItem(item);
         booking.setBooker(user);
         booking.setStart(bookingDto.getStart());
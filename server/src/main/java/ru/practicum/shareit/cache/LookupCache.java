@@ -0,0 +1,105 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.datasource.PrimaryReads;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Кэш сущностей по id для проверок существования и чтения без обращения к базе. Отсутствующие сущности
+ * не кэшируются. Закэшированные сущности используются только для чтения и как ссылки в новых сущностях:
+ * изменения выполняются над сущностью, загруженной из репозитория, после чего запись сбрасывается.
+ * Промахи читаются из основной базы через {@link PrimaryReads}
+ */
+public abstract class LookupCache<T> {
+    private final CrudRepository<T, Long> repository;
+    private final LookupCacheProperties properties;
+    private final PrimaryReads primaryReads;
+    private final AsyncCache<Long, T> cache;
+
+    protected LookupCache(String name, CrudRepository<T, Long> repository, LookupCacheProperties properties,
+                          PrimaryReads primaryReads, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.primaryReads = primaryReads;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "shareit." + name);
+    }
+
+    /**
+     * Поиск сущности по id. Одновременные промахи по одному id загружают сущность один раз.
+     * Загрузка выполняется вызывающим потоком вне блокировки кэша, остальные ждут ее результат,
+     * поэтому запрос к базе не удерживает монитор и не закрепляет виртуальный поток за потоком-носителем
+     *
+     * @param id id сущности
+     */
+    public Optional<T> findById(long id) {
+        if (!properties.isEnabled()) {
+            return repository.findById(id);
+        }
+        CompletableFuture<T> loading = new CompletableFuture<>();
+        CompletableFuture<T> value = cache.get(id, (key, executor) -> loading);
+        if (value == loading) {
+            try {
+                // null и исключение удаляют запись из кэша
+                loading.complete(primaryReads.read(() -> repository.findById(id).orElse(null)));
+            } catch (Throwable e) {
+                // ожидающие потоки получают и Error, иначе они ждали бы загрузку бесконечно
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(value.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Проверка существования сущности
+     *
+     * @param id id сущности
+     */
+    public boolean existsById(long id) {
+        return findById(id).isPresent();
+    }
+
+    /**
+     * Сброс записи после изменения или удаления сущности. Внутри транзакции запись сбрасывается после фиксации,
+     * иначе одновременная загрузка вернула бы в кэш состояние, прочитанное до фиксации. Незавершенная загрузка
+     * при сбросе тоже удаляется и в кэш не попадает
+     *
+     * @param id id сущности
+     */
+    public void evict(long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.synchronous().invalidate(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.synchronous().invalidate(id);
+            }
+        });
+    }
+}
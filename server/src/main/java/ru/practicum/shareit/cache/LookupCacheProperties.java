@@ -0,0 +1,28 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэшей пользователей и предметов по id
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.cache")
+public class LookupCacheProperties {
+    /**
+     * Кэширование включено
+     */
+    private boolean enabled = true;
+    /**
+     * Максимальное число сущностей в каждом кэше
+     */
+    private long maximumSize = 10_000;
+    /**
+     * Время жизни записи. Ограничивает устаревание, если сущность изменена в обход сервиса
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+}
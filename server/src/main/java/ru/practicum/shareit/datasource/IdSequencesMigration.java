@@ -0,0 +1,67 @@
+package ru.practicum.shareit.datasource;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Миграция V5: последовательности для id сущностей. Последовательность начинается со следующего
+ * после максимального id таблицы, поэтому миграция одинаково выполняется на PostgreSQL и H2
+ * без setval. Шаг последовательности равен increment_size генераторов в сущностях
+ */
+@Component
+public class IdSequencesMigration implements JavaMigration {
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of("users", "item_requests", "items", "bookings", "comments");
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("5");
+    }
+
+    @Override
+    public String getDescription() {
+        return "create id sequences";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    @Override
+    public boolean isBaselineMigration() {
+        return false;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long start;
+                try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    rs.next();
+                    start = rs.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + start +
+                        " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+}
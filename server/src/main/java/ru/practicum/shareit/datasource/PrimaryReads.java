@@ -0,0 +1,57 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Чтение из основной базы в отдельной read-only транзакции, мимо реплики. Нужно для данных, которые
+ * кэшируются после сброса: строка, прочитанная с отстающей реплики, осталась бы в кэше до истечения записи.
+ * Без реплики все чтения и так идут в основную базу, поэтому используется {@link #DIRECT}
+ */
+public class PrimaryReads {
+    /**
+     * Чтение в текущей транзакции без переключения базы
+     */
+    public static final PrimaryReads DIRECT = new PrimaryReads();
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private final TransactionTemplate transaction;
+
+    private PrimaryReads() {
+        this.transaction = null;
+    }
+
+    public PrimaryReads(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transaction.setReadOnly(true);
+    }
+
+    /**
+     * Выполняется ли на текущем потоке чтение из основной базы
+     */
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * Выполнение чтения. Внешняя транзакция приостанавливается: она могла уже взять соединение с репликой
+     *
+     * @param read чтение
+     */
+    public <T> T read(Supplier<T> read) {
+        if (transaction == null) {
+            return read.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return transaction.execute(status -> read.get());
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Пользователи, недавно выполнившие запись. Пока не истекло окно задержки реплики,
+ * их чтения направляются в основную базу
+ */
+@RequiredArgsConstructor
+public class RecentWriters {
+    private final Clock clock;
+    private final Duration window;
+
+    private final Map<Long, Instant> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Отметка о записи пользователя
+     *
+     * @param userId id пользователя
+     */
+    public void markWrite(long userId) {
+        lastWrites.put(userId, clock.instant());
+    }
+
+    /**
+     * Проверка, что пользователь выполнял запись в пределах окна. Истекшие отметки удаляются
+     *
+     * @param userId id пользователя
+     */
+    public boolean wroteRecently(long userId) {
+        Instant lastWrite = lastWrites.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (lastWrite.plus(window).isAfter(clock.instant())) {
+            return true;
+        }
+        lastWrites.remove(userId, lastWrite);
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.Map;
+
+/**
+ * Разделение чтения и записи между основной базой и репликой. Включается, только если задан
+ * shareit.datasource.replica.url; иначе используется обычный источник данных spring.datasource
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.datasource.replica", name = "url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("shareit.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+        DataSourceProperties replica = new DataSourceProperties();
+        replica.setUrl(properties.getUrl());
+        replica.setUsername(properties.getUsername());
+        replica.setPassword(properties.getPassword());
+        replica.setDriverClassName(properties.getDriverClassName());
+        HikariDataSource dataSource = replica.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public RecentWriters recentWriters(Clock clock, ReplicaProperties properties) {
+        return new RecentWriters(clock, properties.getRecentWriteWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 RecentWriters recentWriters) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(recentWriters);
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReplicaRoutingDataSource.Route.REPLICA, replicaDataSource
+        ));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public PrimaryReads primaryReads(PlatformTransactionManager transactionManager) {
+        return new PrimaryReads(transactionManager);
+    }
+
+    @Bean
+    public RequestUserFilter requestUserFilter() {
+        return new RequestUserFilter();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки реплики базы данных для read-only транзакций
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.replica")
+public class ReplicaProperties {
+    /**
+     * JDBC URL реплики; если не задан, все запросы идут в основную базу
+     */
+    private String url;
+    /**
+     * Имя пользователя реплики
+     */
+    private String username;
+    /**
+     * Пароль пользователя реплики
+     */
+    private String password;
+    /**
+     * Класс JDBC драйвера реплики
+     */
+    private String driverClassName;
+    /**
+     * Время после записи, в течение которого чтения пользователя идут в основную базу,
+     * чтобы он не увидел на реплике устаревшие данные
+     */
+    private Duration recentWriteWindow = Duration.ofSeconds(5);
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Выбор базы данных по текущей транзакции: read-only транзакции идут в реплику, остальные в основную базу.
+ * Чтения пользователя, недавно выполнившего запись, и чтения через {@link PrimaryReads} тоже идут в основную
+ * базу. Соединение должно запрашиваться уже после начала транзакции, поэтому источник оборачивается
+ * в LazyConnectionDataSourceProxy
+ */
+@RequiredArgsConstructor
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final RecentWriters recentWriters;
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PrimaryReads.isActive()) {
+            return Route.PRIMARY;
+        }
+        Long userId = RequestUser.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                markWriteAfterCommit(userId);
+            }
+            return Route.PRIMARY;
+        }
+        if (userId != null && recentWriters.wroteRecently(userId)) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    /**
+     * Окно задержки реплики отсчитывается от фиксации транзакции, а не от ее начала
+     */
+    private void markWriteAfterCommit(long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentWriters.markWrite(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.markWrite(userId);
+            }
+        });
+    }
+
+    /**
+     * Ключи источников данных
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.datasource;
+
+/**
+ * Id пользователя текущего запроса из заголовка X-Sharer-User-Id
+ */
+public final class RequestUser {
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private RequestUser() {
+    }
+
+    public static Long get() {
+        return CURRENT.get();
+    }
+
+    public static void set(Long userId) {
+        CURRENT.set(userId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
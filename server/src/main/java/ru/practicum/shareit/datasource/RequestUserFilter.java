@@ -0,0 +1,38 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Сохранение id пользователя запроса для выбора базы данных
+ */
+public class RequestUserFilter extends OncePerRequestFilter {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestUser.set(parseUserId(request.getHeader(HEADER)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestUser.clear();
+        }
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
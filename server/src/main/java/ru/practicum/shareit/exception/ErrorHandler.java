@@ -48,6 +48,12 @@ public class ErrorHandler {
         return new ErrorResponse("FORBIDDEN");
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingConflictException(final BookingConflictException e) {
+        return new ErrorResponse("Время уже забронировано");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleDataIntegrityViolationException(final DataIntegrityViolationException e) {
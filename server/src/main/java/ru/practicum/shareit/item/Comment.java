@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
@@ -15,15 +17,22 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @GenericGenerator(name = "comments_seq", strategy = "sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "comments_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private long id;
     @Column(name = "text")
     private String text;
     @JoinColumn(name = "item_id")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     private Item item;
     @JoinColumn(name = "author_id")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     private User author;
     @Column(name = "created")
     private LocalDateTime created;
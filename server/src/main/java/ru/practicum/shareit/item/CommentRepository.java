@@ -1,15 +1,29 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     /**
-     * Получение списка отзывов предмета
+     * Получение dto отзывов предмета без загрузки сущностей
      *
      * @param itemId id предмета
      */
-    List<Comment> getAllByItemId(long itemId);
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a where c.item.id = :itemId order by c.id")
+    List<CommentDto> findDtoByItemId(long itemId);
+
+    /**
+     * Получение отзывов для нескольких предметов одним запросом
+     *
+     * @param itemIds id предметов
+     */
+    @Query("select c from Comment c join fetch c.author join fetch c.item i join fetch i.owner " +
+            "where i.id in :itemIds order by c.id")
+    List<Comment> getAllByItemIdIn(Collection<Long> itemIds);
 }
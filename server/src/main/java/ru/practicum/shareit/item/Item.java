@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
@@ -16,7 +18,12 @@ import java.util.List;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @GenericGenerator(name = "items_seq", strategy = "sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "items_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private long id;
     @Column(name = "name")
     private String name;
@@ -25,7 +32,8 @@ public class Item {
     @Column(name = "available")
     private Boolean available;
     @JoinColumn(name = "owner_id")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     private User owner;
     @OneToMany(mappedBy = "item", fetch = FetchType.LAZY)
     @ToString.Exclude
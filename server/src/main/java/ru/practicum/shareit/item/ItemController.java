@@ -1,13 +1,22 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.function.Consumer;
+
+import static ru.practicum.shareit.stream.NdjsonResponses.ndjson;
 
 @Slf4j
 @RestController
@@ -17,6 +26,7 @@ public class ItemController {
 
     private static final String HEADER = "X-Sharer-User-Id";
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto addNewItem(@RequestHeader(HEADER) long userId, @RequestBody ItemDto itemDto) {
@@ -53,6 +63,18 @@ public class ItemController {
         return itemService.getItems(userId, from, size);
     }
 
+    /**
+     * Все предметы пользователя в формате NDJSON, по одному предмету в строке
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAllByUserId(@RequestHeader(HEADER) long userId,
+                                                                   HttpServletRequest request) {
+        log.info("SERVER: Export items by user id = {}", userId);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ndjson(objectMapper, (Consumer<ItemOwnerDto> consumer) -> itemService.streamItems(userId,
+                consumer));
+    }
+
     @DeleteMapping("/{itemId}")
     public void deleteItem(@RequestHeader(HEADER) long userId, @PathVariable long itemId) {
         log.info("SERVER: Delete item id = {}", itemId);
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.LookupCache;
+import ru.practicum.shareit.cache.LookupCacheProperties;
+import ru.practicum.shareit.datasource.PrimaryReads;
+
+import java.util.Optional;
+
+/**
+ * Кэш предметов по id. Сбрасывается при обновлении и удалении предмета
+ */
+@Component
+@EnableConfigurationProperties(LookupCacheProperties.class)
+public class ItemLookupCache extends LookupCache<Item> {
+
+    public ItemLookupCache(ItemRepository repository, LookupCacheProperties properties,
+                           Optional<PrimaryReads> primaryReads, MeterRegistry meterRegistry) {
+        super("items", repository, properties, primaryReads.orElse(PrimaryReads.DIRECT), meterRegistry);
+    }
+}
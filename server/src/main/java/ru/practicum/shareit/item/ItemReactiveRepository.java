@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Collection;
+
+/**
+ * Чтение предметов через R2DBC для реактивных эндпоинтов
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.reactive", name = "enabled", havingValue = "true")
+public class ItemReactiveRepository {
+    private static final String ITEM_DTO = "select id, name, description, available, owner_id, request_id " +
+            "from items ";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Проверка, что у пользователя есть предметы
+     *
+     * @param ownerId id владельца
+     */
+    public Mono<Boolean> existsByOwnerId(long ownerId) {
+        return databaseClient.sql("select id from items where owner_id = :owner limit 1")
+                .bind("owner", ownerId)
+                .map(row -> true)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Получение dto предметов по id
+     *
+     * @param itemIds id предметов
+     */
+    public Flux<ItemDto> findDtoByIdIn(Collection<Long> itemIds) {
+        return databaseClient.sql(ITEM_DTO + "where id in (:ids)")
+                .bind("ids", itemIds)
+                .map(ItemReactiveRepository::toItemDto)
+                .all();
+    }
+
+    /**
+     * Получение dto предметов, подходящих под запросы
+     *
+     * @param requestIds id запросов
+     */
+    public Flux<ItemDto> findDtoByRequestIdIn(Collection<Long> requestIds) {
+        return databaseClient.sql(ITEM_DTO + "where request_id in (:requestIds) order by id")
+                .bind("requestIds", requestIds)
+                .map(ItemReactiveRepository::toItemDto)
+                .all();
+    }
+
+    private static ItemDto toItemDto(Row row) {
+        return new ItemDto(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                row.get("available", Boolean.class),
+                row.get("owner_id", Long.class),
+                row.get("request_id", Long.class));
+    }
+}
@@ -2,9 +2,16 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
@@ -13,16 +20,15 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      *
      * @param userId id пользователя
      */
+    @Query("select i from Item i where i.owner.id = :userId")
     Page<Item> findByOwnerId(long userId, Pageable pageable);
 
     /**
-     * Поиск предмета по фрагменту в названии и описании. Available = true
+     * Проверка, что у пользователя есть предметы
      *
-     * @param name текст для поиска
-     * @param description текст для поиска
+     * @param userId id пользователя
      */
-    Page<Item> searchAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(
-            String name, String description, Pageable pageable);
+    boolean existsByOwnerId(long userId);
 
     /**
      * Поиск предметов, подходящих под запрос
@@ -30,5 +36,38 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      * @param requestId id запроса
      */
     List<Item> searchAllByRequestId(long requestId);
-}
 
+    /**
+     * Поиск предметов, подходящих под любой из запросов, одним запросом вместе с владельцами
+     *
+     * @param requestIds id запросов
+     */
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Получение предметов по id одним запросом вместе с владельцами
+     *
+     * @param ids id предметов
+     */
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Получение dto предметов по id без загрузки сущностей
+     *
+     * @param itemIds id предметов
+     */
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, " +
+            "i.owner.id, i.requestId) from Item i where i.id in :itemIds")
+    List<ItemDto> findDtoByIdIn(Collection<Long> itemIds);
+
+    /**
+     * Потоковое чтение всех предметов пользователя. Должно выполняться в транзакции
+     *
+     * @param userId id пользователя
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select i from Item i where i.owner.id = :userId order by i.id")
+    Stream<Item> streamByOwnerId(long userId);
+}
@@ -0,0 +1,220 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс для поиска предметов по фрагменту названия или описания.
+ * Текст приводится к нижнему регистру и разбивается на слова и n-граммы длиной от одного до трех символов, поэтому поиск
+ * подстроки сводится к пересечению списков предметов по триграммам запроса (или к одному списку для запросов короче
+ * триграммы) и проверке найденных кандидатов, а не к перебору всей таблицы items.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt((Hit hit) -> hit.score).reversed()
+            .thenComparingLong(hit -> hit.itemId);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Построение индекса при старте приложения
+     */
+    @PostConstruct
+    public void warmUp() {
+        List<Item> items = itemRepository.findAll();
+        items.forEach(this::index);
+        log.info("Item search index loaded {} items", items.size());
+    }
+
+    /**
+     * Добавление или обновление предмета в индексе
+     *
+     * @param item предмет
+     */
+    public void index(Item item) {
+        String name = normalize(item.getName());
+        String description = normalize(item.getDescription());
+        Document document = new Document(name, description, tokens(name + " " + description),
+                Boolean.TRUE.equals(item.getAvailable()));
+        lock.writeLock().lock();
+        try {
+            removeFromPostings(item.getId());
+            documents.put(item.getId(), document);
+            for (String gram : grams(document.name + "\n" + document.description)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(item.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаление предмета из индекса
+     *
+     * @param itemId id предмета
+     */
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeFromPostings(itemId);
+            documents.remove(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Поиск доступных предметов по фрагменту названия или описания. Совпадения в названии ранжируются выше
+     * совпадений в описании, совпадение целого слова добавляет ранг, при равном ранге предметы сортируются по id
+     *
+     * @param text текст для поиска
+     * @param from номер страницы
+     * @param size размер страницы
+     */
+    public List<Long> search(String text, int from, int size) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long skip = (long) from * size;
+        // в куче остаются только лучшие совпадения до конца запрошенной страницы, худшее на вершине
+        long limit = skip + size;
+        PriorityQueue<Hit> top = new PriorityQueue<>(RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            for (Long itemId : candidates(query)) {
+                Document document = documents.get(itemId);
+                int score = document.score(query);
+                if (document.available && score > 0) {
+                    top.add(new Hit(itemId, score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.stream()
+                .sorted(RANKING)
+                .skip(skip)
+                .map(hit -> hit.itemId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Кандидаты на совпадение: пересечение списков по всем триграммам запроса.
+     * Для запросов короче триграммы список по самому запросу
+     */
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return postings.getOrDefault(query, Collections.emptySet());
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> list = postings.get(gram);
+            if (list == null) {
+                return Collections.emptySet();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void removeFromPostings(long itemId) {
+        Document old = documents.get(itemId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old.name + "\n" + old.description)) {
+            Set<Long> list = postings.get(gram);
+            if (list != null) {
+                list.remove(itemId);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            for (int length = 1; length <= GRAM && i + length <= text.length(); length++) {
+                grams.add(text.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>(Arrays.asList(TOKEN_SEPARATOR.split(text)));
+        tokens.remove("");
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    @AllArgsConstructor
+    private static class Document {
+        private final String name;
+        private final String description;
+        private final Set<String> tokens;
+        private final boolean available;
+
+        private int score(String query) {
+            int score = 0;
+            if (name.contains(query)) {
+                score += 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            if (score > 0 && tokens.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Hit {
+        private final long itemId;
+        private final int score;
+    }
+}
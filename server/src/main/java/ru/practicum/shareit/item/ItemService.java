@@ -4,7 +4,10 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -13,6 +16,11 @@ public interface ItemService {
      */
     List<ItemOwnerDto> getItems(long userId, int from, int size);
 
+    /**
+     * Потоковая выдача всех предметов пользователя без загрузки их в память целиком
+     */
+    void streamItems(long userId, Consumer<ItemOwnerDto> consumer);
+
     /**
      * Добавление предмета
      */
@@ -52,4 +60,9 @@ public interface ItemService {
      * Получение списка предметов, подходящих под запрос
      */
     List<ItemDto> getItemsForRequest(long requestId);
+
+    /**
+     * Получение предметов, подходящих под запросы, сгруппированных по id запроса
+     */
+    Map<Long, List<ItemDto>> getItemsForRequests(Collection<Long> requestIds);
 }
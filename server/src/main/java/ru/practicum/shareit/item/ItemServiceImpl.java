@@ -2,36 +2,48 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.dto.LastNextBookingDto;
+import ru.practicum.shareit.booking.LastNextBookingIndex;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserLookupCache;
 
+import javax.persistence.EntityManager;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final ItemSearchIndex searchIndex;
+    private final UserLookupCache userCache;
+    private final ItemLookupCache itemCache;
+    private final LastNextBookingIndex lastNextIndex;
+    private final EntityManager entityManager;
+
+    private static final int STREAM_BATCH_SIZE = 100;
 
     /**
      * Получение списка предметов пользователя
@@ -39,12 +51,59 @@ public class ItemServiceImpl implements ItemService {
      * @param userId id пользователя
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ItemOwnerDto> getItems(long userId, int from, int size) {
         Pageable pageable = PageRequest.of(from, size, Sort.by("id").ascending());
-        Page<Item> userItems = itemRepository.findByOwnerId(userId, pageable);
+        List<Item> userItems = itemRepository.findByOwnerId(userId, pageable).getContent();
+        if (userItems.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return toItemOwnerDto(userItems);
+    }
+
+    /**
+     * Потоковая выдача всех предметов пользователя. Предметы читаются курсором базы пачками: отзывы
+     * для пачки загружаются одним запросом, после чего пачка отсоединяется от контекста персистентности
+     *
+     * @param userId id пользователя
+     * @param consumer получатель предметов
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItems(long userId, Consumer<ItemOwnerDto> consumer) {
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден");
+        }
+        List<Item> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        try (Stream<Item> items = itemRepository.streamByOwnerId(userId)) {
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == STREAM_BATCH_SIZE || !iterator.hasNext()) {
+                    toItemOwnerDto(batch).forEach(consumer);
+                    batch.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Отзывы загружаются для всех предметов сразу, последнее и следующее бронирования берутся из индекса
+     *
+     * @param userItems предметы пользователя
+     */
+    private List<ItemOwnerDto> toItemOwnerDto(List<Item> userItems) {
+        List<Long> itemIds = userItems.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentDto>> comments = commentRepository.getAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
         List<ItemOwnerDto> result = new ArrayList<>();
         for (Item item : userItems) {
-            result.add(findById(userId, item.getId()));
+            result.add(ItemMapper.toItemOwnerDto(item, comments.getOrDefault(item.getId(), new ArrayList<>()),
+                    lastNextIndex.last(item.getId()), lastNextIndex.next(item.getId())));
         }
         return result;
     }
@@ -57,8 +116,9 @@ public class ItemServiceImpl implements ItemService {
      */
     @Override
     public ItemDto addNewItem(long userId, ItemDto itemDto) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        User user = userCache.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
         Item item = itemRepository.save(ItemMapper.toItem(itemDto, user));
+        searchIndex.index(item);
         return ItemMapper.toItemDto(item);
     }
 
@@ -70,10 +130,14 @@ public class ItemServiceImpl implements ItemService {
      * @param itemDto dto предмета
      */
     @Override
+    @Transactional
     public ItemDto updateItem(long userId, long itemId, ItemDto itemDto) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
-        checkAccess(itemId, userId);
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден");
+        }
+        // изменяется сущность из репозитория, а не закэшированная
         Item updated = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
+        checkAccess(updated, userId);
         if (itemDto.getName() != null) {
             updated.setName(itemDto.getName());
         }
@@ -84,39 +148,46 @@ public class ItemServiceImpl implements ItemService {
             updated.setAvailable(itemDto.getAvailable());
         }
         itemRepository.save(updated);
+        itemCache.evict(itemId);
+        searchIndex.index(updated);
         return ItemMapper.toItemDto(updated);
     }
 
     /**
      * Проверка прав доступа к предмету
      *
+     * @param item предмет
      * @param userId id пользователя
-     * @param itemId id предмета
      */
     @SneakyThrows
-    private void checkAccess(long itemId, long userId) {
-        if (userId != itemRepository.findById(itemId)
-                .orElseThrow(() -> new ItemNotFoundException("Предмет не найден")).getOwner().getId()) {
+    private void checkAccess(Item item, long userId) {
+        if (userId != item.getOwner().getId()) {
             throw new AccessDeniedException("Доступ запрещен!");
         }
     }
 
     /**
-     * Поиск предмета по фрагменту в названии или описании
+     * Поиск предмета по фрагменту в названии или описании. Поиск выполняется по индексу в памяти,
+     * из базы загружаются только найденные предметы
      *
      * @param text текст для поиска
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> searchByDescription(String text, int from, int size) {
         if (text.isEmpty()) {
             return Collections.emptyList();
         }
-        Pageable pageable = PageRequest.of(from, size, Sort.by("id").ascending());
-        Page<Item> foundItems =
-                itemRepository.searchAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(
-                        text, text, pageable);
-        return foundItems.stream()
-                .map(ItemMapper::toItemDto)
+        List<Long> itemIds = searchIndex.search(text, from, size);
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ItemDto> foundItems = itemRepository.findDtoByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        // порядок задается рангом из поискового индекса
+        return itemIds.stream()
+                .map(foundItems::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
@@ -126,21 +197,12 @@ public class ItemServiceImpl implements ItemService {
      * @param itemId id предмета
      */
     @Override
+    @Transactional(readOnly = true)
     public ItemOwnerDto findById(long userId, long itemId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
-        Booking l = bookingRepository.getFirstByItemIdOrderByEndDesc(itemId);
-        Booking n = bookingRepository.getFirstByItemIdOrderByStartAsc(itemId);
-        LastNextBookingDto last = null;
-        if (l != null) {
-            last = BookingMapper.toLastNextBookingDto(l);
-        }
-        LastNextBookingDto next = null;
-        if (n != null) {
-            next = BookingMapper.toLastNextBookingDto(n);
-        }
+        Item item = itemCache.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
         List<CommentDto> comments = getComments(itemId);
         if (userId == item.getOwner().getId()) {
-            return ItemMapper.toItemOwnerDto(item, comments, next, last);
+            return ItemMapper.toItemOwnerDto(item, comments, lastNextIndex.last(itemId), lastNextIndex.next(itemId));
         }
         return ItemMapper.toItemOwnerDto(item, comments, null, null);
     }
@@ -152,9 +214,12 @@ public class ItemServiceImpl implements ItemService {
      * @param itemId id предмета
      */
     @Override
+    @Transactional
     public void deleteItem(long userId, long itemId) {
-        checkAccess(itemId, userId);
+        checkAccess(itemCache.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Предмет не найден")), userId);
         itemRepository.deleteById(itemId);
+        itemCache.evict(itemId);
+        searchIndex.remove(itemId);
     }
 
     /**
@@ -166,9 +231,10 @@ public class ItemServiceImpl implements ItemService {
      */
     @SneakyThrows
     @Override
+    @Transactional
     public CommentDto addComment(long userId, long itemId, CommentDto commentDto) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        Item item = itemCache.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Предмет не найден"));
+        User user = userCache.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
         // проверка что пользователь брал вещь в аренду
         bookingRepository.findByBookerIdAndEndBefore(userId, LocalDateTime.now()).stream()
                 .filter(booking -> booking.getItem().getId() == itemId)
@@ -184,9 +250,9 @@ public class ItemServiceImpl implements ItemService {
      * @param itemId id предмета
      */
     @Override
+    @Transactional(readOnly = true)
     public List<CommentDto> getComments(long itemId) {
-        List<Comment> comments = commentRepository.getAllByItemId(itemId);
-        return CommentMapper.toCommentDto(comments);
+        return commentRepository.findDtoByItemId(itemId);
     }
 
     /**
@@ -195,8 +261,25 @@ public class ItemServiceImpl implements ItemService {
      * @param requestId id запроса
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getItemsForRequest(long requestId) {
         List<Item> items = itemRepository.searchAllByRequestId(requestId);
         return ItemMapper.toItemDto(items);
     }
+
+    /**
+     * Получение предметов, подходящих под запросы, одним запросом к базе
+     *
+     * @param requestIds id запросов
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<ItemDto>> getItemsForRequests(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
+    }
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Пул соединений R2DBC для реактивных эндпоинтов чтения. Автоконфигурация R2DBC отключена в ShareItServer:
+ * запись и остальные чтения идут через JPA, а второй менеджер транзакций не нужен. Пул не регистрируется
+ * бином ConnectionFactory, иначе автоконфигурация DataSource не создает JDBC пул
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.reactive", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReactiveProperties.class)
+public class ReactiveConfig {
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient databaseClient(ReactiveProperties properties) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate();
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(
+                        ConnectionFactories.get(options.build()))
+                .name("reactive")
+                .initialSize(properties.getInitialSize())
+                .maxSize(properties.getMaxSize())
+                .maxAcquireTime(properties.getMaxAcquireTime())
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.reactive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки реактивных эндпоинтов чтения поверх R2DBC
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.reactive")
+public class ReactiveProperties {
+    /**
+     * Включает NDJSON-эндпоинты чтения, которые читают базу через R2DBC
+     */
+    private boolean enabled;
+    /**
+     * R2DBC URL той же базы, что и spring.datasource.url
+     */
+    private String url;
+    /**
+     * Имя пользователя базы
+     */
+    private String username;
+    /**
+     * Пароль пользователя базы
+     */
+    private String password;
+    /**
+     * Начальное число соединений пула R2DBC
+     */
+    private int initialSize = 5;
+    /**
+     * Максимальное число соединений пула R2DBC
+     */
+    private int maxSize = 20;
+    /**
+     * Время ожидания свободного соединения пула
+     */
+    private Duration maxAcquireTime = Duration.ofSeconds(10);
+}
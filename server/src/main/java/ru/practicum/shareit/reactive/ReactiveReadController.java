@@ -0,0 +1,75 @@
+package ru.practicum.shareit.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * NDJSON-варианты эндпоинтов чтения. Выбираются по заголовку Accept: application/x-ndjson, остальные
+ * запросы по тем же путям обрабатываются блокирующими контроллерами. Элементы пишутся в ответ по одному
+ * по мере чтения строк из базы, поэтому тело ответа не буферизуется для ETag
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadController {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    private final ReactiveReadService readService;
+
+    @GetMapping(value = "/items/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemDto> findByDescription(@RequestParam(value = "text") String text,
+                                           @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+                                           @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+                                           HttpServletRequest request) {
+        log.info("SERVER: Stream items name/description = {}", text);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return readService.searchByDescription(text, from, size);
+    }
+
+    @GetMapping(value = "/bookings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookingDto> getAllBookingsFromUser(@RequestHeader(HEADER) long userId,
+                            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+                            @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+                            @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+                            HttpServletRequest request) {
+        log.info("SERVER: User {} stream own bookings state = {}", userId, state);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return readService.getAllFromUser(userId, state, from, size);
+    }
+
+    @GetMapping(value = "/bookings/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookingDto> getAllBookingsForUsersItems(@RequestHeader(HEADER) long userId,
+                            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+                            @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+                            @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+                            HttpServletRequest request) {
+        log.info("SERVER: User {} stream bookings for items state = {}", userId, state);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return readService.getAllForItems(userId, state, from, size);
+    }
+
+    @GetMapping(value = "/requests/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemRequestWithAnswersDto> getAllRequests(@RequestHeader(HEADER) long userId,
+                            @RequestParam(value = "from", required = false, defaultValue = "0") int from,
+                            @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+                            HttpServletRequest request) {
+        log.info("SERVER: User {} stream all requests with from = {} and size = {}", userId, from, size);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return readService.getAllRequests(userId, from, size);
+    }
+}
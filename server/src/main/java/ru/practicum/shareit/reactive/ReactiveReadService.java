@@ -0,0 +1,127 @@
+package ru.practicum.shareit.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.BookingReactiveRepository;
+import ru.practicum.shareit.booking.BookingStateClassifier;
+import ru.practicum.shareit.booking.StateFilter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemReactiveRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.requests.ItemRequestReactiveRepository;
+import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.user.UserLookupCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Реактивные варианты чтений ItemService, BookingService и ItemRequestService. Проверки и страницы from/size
+ * такие же, как в блокирующих сервисах, строки читаются из базы через R2DBC по мере запроса клиентом
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadService {
+    /**
+     * Число запросов, ответы на которые загружаются одним запросом к базе
+     */
+    private static final int ANSWERS_BATCH = 32;
+
+    private final ItemReactiveRepository itemRepository;
+    private final BookingReactiveRepository bookingRepository;
+    private final ItemRequestReactiveRepository requestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final UserLookupCache userCache;
+    private final BookingStateClassifier classifier;
+
+    /**
+     * Поиск предмета по фрагменту в названии или описании
+     *
+     * @param text текст для поиска
+     */
+    public Flux<ItemDto> searchByDescription(String text, int from, int size) {
+        if (text.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> itemIds = searchIndex.search(text, from, size);
+        if (itemIds.isEmpty()) {
+            return Flux.empty();
+        }
+        // порядок задается рангом из поискового индекса
+        return itemRepository.findDtoByIdIn(itemIds)
+                .collectMap(ItemDto::getId)
+                .flatMapIterable(foundItems -> itemIds.stream()
+                        .map(foundItems::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Получение бронирований пользователя
+     *
+     * @param userId id пользователя
+     * @param state состояние бронирования
+     */
+    public Flux<BookingDto> getAllFromUser(long userId, String state, int from, int size) {
+        checkUserExists(userId);
+        StateFilter filter = StateFilter.of(state, classifier.now());
+        return bookingRepository.findDtoByBookerId(userId, filter, (long) from * size, size);
+    }
+
+    /**
+     * Получение бронирований предметов пользователя
+     *
+     * @param userId id владельца
+     * @param state состояние бронирования
+     */
+    public Flux<BookingDto> getAllForItems(long userId, String state, int from, int size) {
+        checkUserExists(userId);
+        return itemRepository.existsByOwnerId(userId)
+                .flatMapMany(exists -> {
+                    if (!exists) {
+                        return Flux.error(new ValidationException("Предметы не найдены"));
+                    }
+                    StateFilter filter = StateFilter.of(state, classifier.now());
+                    return bookingRepository.findDtoByItemOwnerId(userId, filter, (long) from * size, size);
+                });
+    }
+
+    /**
+     * Получение запросов других пользователей с ответами. Ответы загружаются пачками запросов
+     * по мере чтения страницы
+     *
+     * @param userId id пользователя
+     */
+    public Flux<ItemRequestWithAnswersDto> getAllRequests(long userId, int from, int size) {
+        return requestRepository.findOthers(userId, (long) from * size, size)
+                .buffer(ANSWERS_BATCH)
+                .concatMap(requests -> itemRepository.findDtoByRequestIdIn(requests.stream()
+                                .map(ItemRequestWithAnswersDto::getId)
+                                .collect(Collectors.toList()))
+                        .collectMultimap(ItemDto::getRequestId)
+                        .flatMapIterable(answers -> withAnswers(requests, answers)));
+    }
+
+    private static List<ItemRequestWithAnswersDto> withAnswers(List<ItemRequestWithAnswersDto> requests,
+                                                               Map<Long, Collection<ItemDto>> answers) {
+        for (ItemRequestWithAnswersDto request : requests) {
+            request.getItems().addAll(answers.getOrDefault(request.getId(), List.of()));
+        }
+        return requests;
+    }
+
+    private void checkUserExists(long userId) {
+        if (!userCache.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден");
+        }
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
@@ -17,12 +19,18 @@ import java.time.LocalDateTime;
 @Table(name = "item_requests")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_seq")
+    @GenericGenerator(name = "item_requests_seq", strategy = "sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "item_requests_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private long id;
     @Column(name = "description")
     private String description;
     @JoinColumn(name = "requester_id")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     private User requester;
     @Column(name = "created")
     private LocalDateTime created;
@@ -1,12 +1,24 @@
 package ru.practicum.shareit.requests;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
 
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+
+import static ru.practicum.shareit.stream.NdjsonResponses.ndjson;
 
 @Slf4j
 @RestController
@@ -17,6 +29,7 @@ public class ItemRequestController {
     private static final String HEADER = "X-Sharer-User-Id";
 
     private final ItemRequestService requestService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemRequestDto addNewItemRequest(@RequestHeader(HEADER) long userId, @RequestBody ItemRequestDto requestDto) {
@@ -33,11 +46,32 @@ public class ItemRequestController {
     @GetMapping("/all")
     public List<ItemRequestWithAnswersDto> getAllRequests(@RequestHeader(HEADER) long userId,
                                        @RequestParam(value = "from", required = false, defaultValue = "0") int from,
-                                       @RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+                                       @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+                                       @RequestParam(value = "cursorCreated", required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreated,
+                                       @RequestParam(value = "cursorId", required = false) Long cursorId) {
         log.info("SERVER: User {} get all requests with from = {} and size = {}", userId, from, size);
+        if ((cursorCreated == null) != (cursorId == null)) {
+            throw new ValidationException("Курсор должен содержать cursorCreated и cursorId");
+        }
+        if (cursorId != null) {
+            return requestService.getAllRequests(userId, cursorCreated, cursorId, size);
+        }
         return requestService.getAllRequests(userId, from, size);
     }
 
+    /**
+     * Вся лента запросов других пользователей в формате NDJSON, по одному запросу в строке
+     */
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllRequests(@RequestHeader(HEADER) long userId,
+                                                                   HttpServletRequest request) {
+        log.info("SERVER: User {} stream all requests", userId);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ndjson(objectMapper,
+                (Consumer<ItemRequestWithAnswersDto> consumer) -> requestService.streamAllRequests(userId, consumer));
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestWithAnswersDto getRequest(@RequestHeader(HEADER) long userId, @PathVariable long requestId) {
         log.info("SERVER: User {} get request {}", userId, requestId);
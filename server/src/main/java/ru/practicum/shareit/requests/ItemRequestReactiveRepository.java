@@ -0,0 +1,43 @@
+package ru.practicum.shareit.requests;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Чтение запросов вещей через R2DBC для реактивных эндпоинтов
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.reactive", name = "enabled", havingValue = "true")
+public class ItemRequestReactiveRepository {
+    private static final int FETCH_SIZE = 100;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Получение страницы запросов других пользователей от новых к старым, без ответов
+     *
+     * @param requester id пользователя
+     */
+    public Flux<ItemRequestWithAnswersDto> findOthers(long requester, long offset, int limit) {
+        return databaseClient.sql("select id, description, created from item_requests " +
+                        "where requester_id <> :requester order by created desc, id desc limit :limit offset :offset")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("requester", requester)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> new ItemRequestWithAnswersDto(
+                        row.get("id", Long.class),
+                        row.get("description", String.class),
+                        row.get("created", LocalDateTime.class),
+                        new ArrayList<>()))
+                .all();
+    }
+}
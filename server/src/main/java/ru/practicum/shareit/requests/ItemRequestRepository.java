@@ -1,14 +1,48 @@
 package ru.practicum.shareit.requests;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     /**
      * Получение списка запросов пользователя
      */
+    @EntityGraph(attributePaths = "requester")
+    @Query("select r from ItemRequest r where r.requester.id = :requesterId")
     List<ItemRequest> findAllByRequesterId(long requesterId);
 
+    /**
+     * Получение страницы запросов, созданных другими пользователями
+     */
+    @EntityGraph(attributePaths = "requester")
+    @Query("select r from ItemRequest r where r.requester.id <> :requester order by r.created desc, r.id desc")
+    Slice<ItemRequest> findOthers(long requester, Pageable pageable);
+
+    /**
+     * Получение страницы запросов, созданных другими пользователями, начинающейся после курсора (created, id)
+     */
+    @EntityGraph(attributePaths = "requester")
+    @Query("select r from ItemRequest r where r.requester.id <> :requester and r.created <= :cursorCreated " +
+            "and (r.created < :cursorCreated or r.id < :cursorId) " +
+            "order by r.created desc, r.id desc")
+    Slice<ItemRequest> findOthersBeforeCursor(long requester, LocalDateTime cursorCreated, long cursorId,
+                                              Pageable pageable);
+
+    /**
+     * Потоковое чтение всех запросов, созданных другими пользователями. Должно выполняться в транзакции
+     */
+    @EntityGraph(attributePaths = "requester")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select r from ItemRequest r where r.requester.id <> :requester order by r.created desc, r.id desc")
+    Stream<ItemRequest> streamOthers(long requester);
 }
@@ -3,7 +3,9 @@ package ru.practicum.shareit.requests;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemRequestService {
 
@@ -22,6 +24,16 @@ public interface ItemRequestService {
      */
     List<ItemRequestWithAnswersDto> getAllRequests(long userId, int from, int size);
 
+    /**
+     * Получение страницы запросов других пользователей после курсора (created, id) последнего полученного запроса
+     */
+    List<ItemRequestWithAnswersDto> getAllRequests(long userId, LocalDateTime cursorCreated, long cursorId, int size);
+
+    /**
+     * Потоковая выдача всех запросов других пользователей без загрузки их в память целиком
+     */
+    void streamAllRequests(long userId, Consumer<ItemRequestWithAnswersDto> consumer);
+
     /**
      * Получение данных о конкретном запросе с ответами на него
      */
@@ -1,28 +1,37 @@
 package ru.practicum.shareit.requests;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestMapper;
 import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserLookupCache;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository requestRepository;
     private final ItemService itemService;
-    private final UserRepository userRepository;
+    private final UserLookupCache userCache;
+    private final EntityManager entityManager;
+
+    private static final int STREAM_BATCH_SIZE = 100;
 
     /**
      * Добавление нового запроса
@@ -32,7 +41,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      */
     @Override
     public ItemRequestDto addNewItemRequest(long userId, ItemRequestDto itemRequestDto) {
-        User user = userRepository.findById(userId).orElseThrow();
+        User user = userCache.findById(userId).orElseThrow();
         ItemRequest request = requestRepository.save(ItemRequestMapper.toItemRequest(user, itemRequestDto));
         return ItemRequestMapper.toItemRequestDto(request);
     }
@@ -43,14 +52,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      * @param userId id пользователя
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestWithAnswersDto> getOwnRequests(long userId) {
-        userRepository.findById(userId).orElseThrow();
+        userCache.findById(userId).orElseThrow();
         List<ItemRequest> requests = requestRepository.findAllByRequesterId(userId);
-        List<ItemRequestWithAnswersDto> items = new ArrayList<>();
-        for (ItemRequest request : requests) {
-            items.add(ItemRequestMapper.toItemRequestDto(request, itemService.getItemsForRequest(request.getId())));
-        }
-        return items;
+        return withAnswers(requests);
     }
 
     /**
@@ -61,16 +67,53 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      * @param size количество элементов для отображения
      */
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestWithAnswersDto> getAllRequests(long userId, int from, int size) {
-        Pageable pageable = PageRequest.of(from, size, Sort.by("created").descending());
-        Page<ItemRequest> requests = requestRepository.findAll(pageable);
-        List<ItemRequestWithAnswersDto> result = new ArrayList<>();
-        for (ItemRequest request : requests.getContent()) {
-            if (request.getRequester().getId() != userId) {
-                result.add(ItemRequestMapper.toItemRequestDto(request, itemService.getItemsForRequest(request.getId())));
+        Slice<ItemRequest> requests = requestRepository.findOthers(userId, PageRequest.of(from, size));
+        return withAnswers(requests.getContent());
+    }
+
+    /**
+     * Получение страницы запросов, созданных другими пользователями, после курсора (created, id)
+     * последнего полученного запроса
+     *
+     * @param userId id пользователя
+     * @param cursorCreated дата создания последнего полученного запроса
+     * @param cursorId id последнего полученного запроса
+     * @param size количество элементов для отображения
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestWithAnswersDto> getAllRequests(long userId, LocalDateTime cursorCreated, long cursorId,
+                                                          int size) {
+        Slice<ItemRequest> requests = requestRepository.findOthersBeforeCursor(userId, cursorCreated, cursorId,
+                PageRequest.of(0, size));
+        return withAnswers(requests.getContent());
+    }
+
+    /**
+     * Потоковая выдача всех запросов, созданных другими пользователями. Запросы читаются курсором базы
+     * и передаются дальше пачками: ответы на пачку загружаются одним запросом, после чего пачка
+     * отсоединяется от контекста персистентности, поэтому память не растет с длиной выдачи
+     *
+     * @param userId id пользователя
+     * @param consumer получатель запросов
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllRequests(long userId, Consumer<ItemRequestWithAnswersDto> consumer) {
+        List<ItemRequest> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        try (Stream<ItemRequest> requests = requestRepository.streamOthers(userId)) {
+            Iterator<ItemRequest> iterator = requests.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == STREAM_BATCH_SIZE || !iterator.hasNext()) {
+                    withAnswers(batch).forEach(consumer);
+                    batch.clear();
+                    entityManager.clear();
+                }
             }
         }
-        return result;
     }
 
     /**
@@ -80,10 +123,30 @@ public class ItemRequestServiceImpl implements ItemRequestService {
      * @param requestId id запроса
      */
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestWithAnswersDto getRequest(long userId, long requestId) {
-        userRepository.findById(userId).orElseThrow();
+        userCache.findById(userId).orElseThrow();
         ItemRequest itemRequest = requestRepository.findById(requestId).orElseThrow();
         List<ItemDto> items = itemService.getItemsForRequest(requestId);
         return ItemRequestMapper.toItemRequestDto(itemRequest, items);
     }
+
+    /**
+     * Добавление ответов к запросам: предметы для всей страницы загружаются одним запросом
+     * и раскладываются по запросам в памяти
+     *
+     * @param requests запросы
+     */
+    private List<ItemRequestWithAnswersDto> withAnswers(List<ItemRequest> requests) {
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> answers = itemService.getItemsForRequests(requestIds);
+        List<ItemRequestWithAnswersDto> result = new ArrayList<>();
+        for (ItemRequest request : requests) {
+            result.add(ItemRequestMapper.toItemRequestDto(request,
+                    answers.getOrDefault(request.getId(), new ArrayList<>())));
+        }
+        return result;
+    }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Ответ об ошибке на NDJSON-запрос пишется одной строкой JSON, элементы потока пишет основной конвертер.
+ * Конвертер добавляется в конец списка, а не бином, иначе он заменил бы конвертер JSON из автоконфигурации
+ */
+@Configuration
+@RequiredArgsConstructor
+public class NdjsonConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        converter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_NDJSON));
+        converters.add(converter);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Ответы в формате NDJSON: каждый элемент сериализуется и пишется отдельной строкой сразу после чтения
+ */
+public final class NdjsonResponses {
+
+    private NdjsonResponses() {
+    }
+
+    /**
+     * Ответ, тело которого пишется в асинхронном потоке MVC по мере выдачи элементов
+     *
+     * @param objectMapper сериализатор элементов
+     * @param producer потоковая выдача элементов получателю
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper,
+                                                                   Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> producer.accept(element -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(element));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
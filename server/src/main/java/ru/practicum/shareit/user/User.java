@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 
@@ -14,7 +16,12 @@ import javax.persistence.*;
 @NoArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @GenericGenerator(name = "users_seq", strategy = "sequence", parameters = {
+            @Parameter(name = "sequence_name", value = "users_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private long id;
     @Column(name = "name")
     private String name;
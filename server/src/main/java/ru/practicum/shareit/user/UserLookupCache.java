@@ -0,0 +1,23 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.LookupCache;
+import ru.practicum.shareit.cache.LookupCacheProperties;
+import ru.practicum.shareit.datasource.PrimaryReads;
+
+import java.util.Optional;
+
+/**
+ * Кэш пользователей по id. Сбрасывается при обновлении и удалении пользователя
+ */
+@Component
+@EnableConfigurationProperties(LookupCacheProperties.class)
+public class UserLookupCache extends LookupCache<User> {
+
+    public UserLookupCache(UserRepository repository, LookupCacheProperties properties,
+                           Optional<PrimaryReads> primaryReads, MeterRegistry meterRegistry) {
+        super("users", repository, properties, primaryReads.orElse(PrimaryReads.DIRECT), meterRegistry);
+    }
+}
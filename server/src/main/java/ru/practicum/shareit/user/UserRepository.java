@@ -1,7 +1,16 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Получение dto всех пользователей без загрузки сущностей
+     */
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User u order by u.id")
+    List<UserDto> findAllDto();
 }
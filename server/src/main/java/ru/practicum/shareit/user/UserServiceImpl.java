@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -12,14 +13,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserLookupCache userCache;
 
     /**
      * Получение списка пользователей
      */
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getUsers() {
-        List<User> users = userRepository.findAll();
-        return UserMapper.toUserDto(users);
+        return userRepository.findAllDto();
     }
 
     /**
@@ -39,6 +41,7 @@ public class UserServiceImpl implements UserService {
      * @param userDto dto пользователя
      */
     @Override
+    @Transactional
     public UserDto updateUser(UserDto userDto, long userId) {
         User updated = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
         if (userDto.getName() != null) {
@@ -48,6 +51,7 @@ public class UserServiceImpl implements UserService {
             updated.setEmail(userDto.getEmail());
         }
         userRepository.save(updated);
+        userCache.evict(userId);
         return UserMapper.toUserDto(updated);
     }
 
@@ -57,8 +61,9 @@ public class UserServiceImpl implements UserService {
      * @param id id пользователя
      */
     @Override
+    @Transactional(readOnly = true)
     public UserDto findById(long id) {
-        User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        User user = userCache.findById(id).orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
         return UserMapper.toUserDto(user);
     }
 
@@ -68,7 +73,9 @@ public class UserServiceImpl implements UserService {
      * @param id id пользователя
      */
     @Override
+    @Transactional
     public void deleteUser(long id) {
         userRepository.deleteById(id);
+        userCache.evict(id);
     }
 }
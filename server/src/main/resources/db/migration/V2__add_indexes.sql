@@ -0,0 +1,13 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date_time);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_item_requests_requester_created ON item_requests (requester_id, created);
@@ -0,0 +1,13 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS state VARCHAR(16);
+
+UPDATE bookings SET state = CASE
+    WHEN start_date_time > LOCALTIMESTAMP THEN 'FUTURE'
+    WHEN end_date_time < LOCALTIMESTAMP THEN 'PAST'
+    ELSE 'CURRENT'
+END;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_state_start ON bookings (booker_id, state, start_date_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_state_start ON bookings (item_id, state, start_date_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_state_start ON bookings (state, start_date_time);
@@ -0,0 +1,3 @@
+-- Запросы других пользователей выдаются от новых к старым: индекс в порядке выдачи позволяет читать первую
+-- страницу без сортировки и в базах, которые не обходят индекс в обратном направлении
+CREATE INDEX IF NOT EXISTS idx_item_requests_created ON item_requests (created DESC, id DESC);
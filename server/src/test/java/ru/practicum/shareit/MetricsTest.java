@@ -0,0 +1,67 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.metrics.ServiceMetricsAspect;
+import ru.practicum.shareit.metrics.SqlStatementMetricsFilter;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+public class MetricsTest {
+
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    MetricsTest(MockMvc mvc, ObjectMapper mapper, MeterRegistry meterRegistry) {
+        this.mvc = mvc;
+        this.mapper = mapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Test
+    void requestRecordsServiceRepositoryAndStatementMetrics() throws Exception {
+        String created = mvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(new UserDto(0L, "user", "user@gmail.com")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long userId = mapper.readValue(created, UserDto.class).getId();
+
+        mvc.perform(get("/users/{userId}", userId)).andExpect(status().isOk());
+        mvc.perform(get("/users/{userId}", userId)).andExpect(status().isOk());
+
+        assertEquals(2, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("service", "UserServiceImpl").tag("method", "findById").tag("exception", "none")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "UserRepository").tag("method", "findById")
+                .timer().count());
+        // второй запрос обслуживается кэшем пользователей без обращения к базе
+        assertEquals(2, meterRegistry.get(SqlStatementMetricsFilter.METRIC_NAME)
+                .tag("method", "GET").tag("uri", "/users/{userId}")
+                .summary().count());
+        assertEquals(1, meterRegistry.get(SqlStatementMetricsFilter.METRIC_NAME)
+                .tag("method", "GET").tag("uri", "/users/{userId}")
+                .summary().totalAmount());
+        assertTrue(meterRegistry.get(SqlStatementMetricsFilter.METRIC_NAME)
+                .tag("method", "POST").tag("uri", "/users")
+                .summary().totalAmount() >= 1);
+    }
+}
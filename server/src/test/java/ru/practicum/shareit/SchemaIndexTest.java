@@ -0,0 +1,177 @@
+package ru.practicum.shareit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.StateFilter;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Проверка планов запросов, которые Hibernate формирует для методов репозиториев. Таблицы заполняются данными и
+ * статистикой, иначе для пустых таблиц все порядки соединения равноценны
+ */
+@SpringBootTest
+@DirtiesContext
+public class SchemaIndexTest {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static final List<Status> STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final List<State> STATES = List.of(State.FUTURE, State.CURRENT);
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final StateFilter ALL = StateFilter.of("ALL", NOW);
+    private static final StateFilter CURRENT = StateFilter.of("CURRENT", NOW);
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+
+    @Autowired
+    SchemaIndexTest(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                    BookingRepository bookingRepository, ItemRepository itemRepository,
+                    CommentRepository commentRepository, ItemRequestRepository requestRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+        this.requestRepository = requestRepository;
+    }
+
+    @BeforeEach
+    void fillTables() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO users (id, name, email) SELECT X, 'user' || X, 'user' || X || '@mail.ru' "
+                + "FROM SYSTEM_RANGE(1, 100)");
+        jdbcTemplate.update("INSERT INTO item_requests (id, description, requester_id, created) "
+                + "SELECT X, 'request', MOD(X, 100) + 1, DATEADD('MINUTE', X, TIMESTAMP '2022-01-01 00:00:00') "
+                + "FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, request_id) "
+                + "SELECT X, 'item' || X, 'description', TRUE, MOD(X, 100) + 1, X FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO bookings "
+                + "(id, start_date_time, end_date_time, item_id, booker_id, status, state) SELECT X, DATEADD('HOUR', X, TIMESTAMP '2022-01-01 00:00:00'), "
+                + "DATEADD('HOUR', X + 1, TIMESTAMP '2022-01-01 00:00:00'), MOD(X, 1000) + 1, MOD(X, 100) + 1, "
+                + "'APPROVED', 'PAST' FROM SYSTEM_RANGE(1, 10000)");
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) "
+                + "SELECT X, 'comment', MOD(X, 1000) + 1, MOD(X, 100) + 1, TIMESTAMP '2022-01-01 00:00:00' "
+                + "FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("bookings of booker", test -> test.bookingRepository.findDtoByBookerId(1L, ALL, PAGE)),
+                query("current bookings of booker", test -> test.bookingRepository.findDtoByBookerId(1L, CURRENT, PAGE)),
+                query("bookings of booker before cursor", test -> test.bookingRepository.findDtoByBookerIdBeforeCursor(
+                        1L, ALL, NOW, 1L, PAGE)),
+                query("bookings of owner", test -> test.bookingRepository.findByItemOwnerId(1L, ALL, PAGE)),
+                query("current bookings of owner", test -> test.bookingRepository.findByItemOwnerId(1L, CURRENT, PAGE)),
+                query("bookings of owner before cursor", test -> test.bookingRepository.findByItemOwnerIdBeforeCursor(
+                        1L, ALL, NOW, 1L, PAGE)),
+                query("bookings of booker stream", test -> test.bookingRepository.streamDtoByBookerId(1L, ALL).close()),
+                query("bookings of owner stream", test -> test.bookingRepository
+                        .streamDtoByItemOwnerId(1L, ALL).close()),
+                query("past bookings of booker", test -> test.bookingRepository.findByBookerIdAndEndBefore(1L, NOW)),
+                query("overlapping bookings of item", test -> test.bookingRepository
+                        .existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L, STATUSES, NOW, NOW)),
+                query("last booking of item", test -> test.bookingRepository
+                        .findByItemIdAndStatusAndEndBeforeOrderByEndDesc(1L, Status.APPROVED, NOW, PAGE)),
+                query("state sweep to past", test -> test.bookingRepository.updateStateByEndBefore(
+                        STATES, State.PAST, NOW)),
+                query("state sweep to current", test -> test.bookingRepository.updateStateByStartNotAfter(
+                        List.of(State.FUTURE), State.CURRENT, NOW)),
+                query("items of owner", test -> test.itemRepository.findByOwnerId(1L, PAGE)),
+                query("items of owner stream", test -> test.itemRepository.streamByOwnerId(1L).close()),
+                query("owner has items", test -> test.itemRepository.existsByOwnerId(1L)),
+                query("items of request", test -> test.itemRepository.searchAllByRequestId(1L)),
+                query("items of requests", test -> test.itemRepository.findAllByRequestIdIn(List.of(1L, 2L))),
+                query("comments of item", test -> test.commentRepository.findDtoByItemId(1L)),
+                query("comments of items", test -> test.commentRepository.getAllByItemIdIn(List.of(1L, 2L))),
+                query("requests of requester", test -> test.requestRepository.findAllByRequesterId(1L)),
+                query("requests of others", test -> test.requestRepository.findOthers(1L, PAGE)),
+                query("requests of others before cursor", test -> test.requestRepository.findOthersBeforeCursor(
+                        1L, NOW, 1L, PAGE))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQueriesUseIndex(String name, Consumer<SchemaIndexTest> query) {
+        STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> query.accept(this));
+        List<String> statements = STATEMENTS.stream()
+                .filter(sql -> !sql.startsWith("select next value"))
+                .collect(Collectors.toList());
+        assertFalse(statements.isEmpty(), name);
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            return statement;
+        }, resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+    }
+
+    private static Arguments query(String name, Consumer<SchemaIndexTest> query) {
+        return Arguments.of(name, query);
+    }
+
+    @TestConfiguration
+    static class StatementRecorderConfig {
+
+        @Bean
+        @Order(Ordered.LOWEST_PRECEDENCE)
+        public HibernatePropertiesCustomizer statementRecorderCustomizer() {
+            return properties -> {
+                StatementInspector delegate = (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    STATEMENTS.add(sql);
+                    return delegate == null ? sql : delegate.inspect(sql);
+                });
+            };
+        }
+    }
+}
@@ -8,9 +8,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.UpdateBookingDto;
+import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
@@ -18,13 +20,18 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -105,6 +112,40 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.item.name", is("item1")));
     }
 
+    @Test
+    void addNewBookings() throws Exception {
+        when(bookingService.addNewBookings(anyLong(), any()))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER, 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].item.name", is("item1")))
+                .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
+    }
+
+    @Test
+    void updateBookings() throws Exception {
+        when(bookingService.updateBookings(anyLong(), any(), anyBoolean()))
+                .thenReturn(List.of(updateBookingDto));
+
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto.getId())))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER, 1L)
+                        .queryParam("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(updateBookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].status", is(updateBookingDto.getStatus().toString())));
+    }
+
     @Test
     void getBooking() throws Exception {
         when(bookingService.findBooking(anyLong(), anyLong()))
@@ -151,4 +192,61 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())))
                 .andExpect(jsonPath("$[0].item.name", is("item1")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllBookingsFromUserWithCursor() throws Exception {
+        when(bookingService.getAllFromUser(anyLong(), anyString(), any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings")
+                        .header(HEADER, 1L)
+                        .queryParam("cursorStart", "2022-09-03T10:10:10")
+                        .queryParam("cursorId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(HEADER, 1L)
+                        .queryParam("cursorId", "2"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportBookings() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(2);
+            consumer.accept(bookingDto);
+            consumer.accept(bookingDto);
+            return null;
+        }).when(bookingService).streamAllFromUser(anyLong(), anyString(), any());
+
+        MvcResult result = mvc.perform(get("/bookings/export")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header(HEADER, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = mapper.writeValueAsString(bookingDto);
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    void exportBookingsForUnknownUser() throws Exception {
+        doThrow(new UserNotFoundException("Пользователь не найден"))
+                .when(bookingService).streamAllForItems(anyLong(), anyString(), any());
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header(HEADER, 5L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Пользователь не найден")));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+
+    private final BookingRepository repository = mock(BookingRepository.class);
+    private BookingIntervalIndex index;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(repository);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void rejectsOverlappingIntervals() {
+        index.add(booking(1, now.plusHours(1), now.plusHours(3)));
+
+        assertFalse(index.isFree(1, now.plusHours(2), now.plusHours(4)));
+        assertFalse(index.isFree(1, now, now.plusHours(2)));
+        assertTrue(index.isFree(1, now.plusHours(3), now.plusHours(4)));
+        assertTrue(index.isFree(2, now.plusHours(2), now.plusHours(4)));
+    }
+
+    @Test
+    void pruneDropsEndedIntervalsAndChecksDatabaseBeforeWatermark() {
+        index.add(booking(1, now.minusHours(3), now.minusHours(2)));
+        index.add(booking(2, now.plusHours(1), now.plusHours(2)));
+        assertFalse(index.isFree(1, now.minusHours(3), now.minusHours(2)));
+
+        index.prune(now);
+        assertTrue(index.isFree(1, now.minusHours(3), now.minusHours(2)));
+        assertFalse(index.isFree(1, now.plusHours(1), now.plusHours(2)));
+
+        when(repository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(eq(1L), anyList(), any(), any()))
+                .thenReturn(true);
+        assertFalse(index.isFree(1, now.minusHours(3), now.minusHours(2)));
+        assertTrue(index.isFree(1, now.plusHours(3), now.plusHours(4)));
+        verify(repository, never()).existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                anyLong(), anyList(), eq(now.plusHours(4)), any());
+    }
+
+    @Test
+    void warmUpSkipsOverlappingBookings() {
+        when(repository.findByStatusInAndEndAfter(anyList(), any()))
+                .thenReturn(List.of(booking(1, now.minusHours(1), now.plusHours(2)),
+                        booking(2, now.plusHours(1), now.plusHours(3))));
+
+        index.warmUp();
+        assertFalse(index.isFree(1, now.plusHours(1), now.plusHours(2)));
+        assertTrue(index.isFree(1, now.plusHours(2), now.plusHours(3)));
+    }
+
+    private static Booking booking(long id, LocalDateTime start, LocalDateTime end) {
+        Item item = new Item();
+        item.setId(1);
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(User.builder().id(10).build())
+                .start(start)
+                .end(end)
+                .status(Status.WAITING)
+                .build();
+    }
+}
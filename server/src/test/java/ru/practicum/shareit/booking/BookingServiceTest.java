@@ -1,14 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.dto.UpdateBookingDto;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -19,13 +26,19 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class BookingServiceTest {
 
@@ -33,14 +46,26 @@ class BookingServiceTest {
     private final BookingRepository repository;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingIntervalIndex bookingIndex;
+    private final BookingStateSweeper stateSweeper;
+    private final LastNextBookingIndex lastNextIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Statistics statistics;
 
     @Autowired
     BookingServiceTest(BookingService bookingService, BookingRepository repository, UserService userService,
-                       ItemService itemService) {
+                       ItemService itemService, BookingIntervalIndex bookingIndex, BookingStateSweeper stateSweeper,
+                       LastNextBookingIndex lastNextIndex, TransactionTemplate transactionTemplate,
+                       EntityManagerFactory entityManagerFactory) {
         this.bookingService = bookingService;
         this.repository = repository;
         this.userService = userService;
         this.itemService = itemService;
+        this.bookingIndex = bookingIndex;
+        this.stateSweeper = stateSweeper;
+        this.lastNextIndex = lastNextIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
     }
 
     private NewBookingDto newBookingDto;
@@ -69,6 +94,70 @@ class BookingServiceTest {
         assertEquals(repository.findById(newBookingDto.getId()).orElseThrow().getEnd(), newBookingDto.getEnd());
     }
 
+    @Test
+    void addNewBookingIgnoresClientId() {
+        BookingDto first = bookingService.addNewBooking(booker.getId(), newBookingDto);
+        NewBookingDto sameId = newBookingDto.toBuilder()
+                .id(first.getId())
+                .start(newBookingDto.getEnd())
+                .end(newBookingDto.getEnd().plusHours(1))
+                .build();
+        BookingDto second = bookingService.addNewBooking(booker.getId(), sameId);
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(newBookingDto.getEnd(), repository.findById(first.getId()).orElseThrow().getEnd());
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void addNewBookingWithOverlap() {
+        bookingService.addNewBooking(booker.getId(), newBookingDto);
+        NewBookingDto overlapping = newBookingDto.toBuilder()
+                .id(2L)
+                .start(newBookingDto.getStart().plusHours(1))
+                .end(newBookingDto.getEnd().plusHours(1))
+                .build();
+        assertThrows(BookingConflictException.class, () -> bookingService.addNewBooking(booker.getId(), overlapping));
+        NewBookingDto adjacent = newBookingDto.toBuilder()
+                .id(2L)
+                .start(newBookingDto.getEnd())
+                .end(newBookingDto.getEnd().plusHours(1))
+                .build();
+        assertNotNull(bookingService.addNewBooking(booker.getId(), adjacent));
+    }
+
+    @Test
+    void addNewBookingWithOverlapAfterPrune() {
+        bookingService.addNewBooking(booker.getId(), newBookingDto);
+        bookingIndex.prune(LocalDateTime.now());
+        NewBookingDto overlapping = newBookingDto.toBuilder().id(2L).start(newBookingDto.getStart().plusHours(1)).build();
+        assertThrows(BookingConflictException.class, () -> bookingService.addNewBooking(booker.getId(), overlapping));
+    }
+
+    @Test
+    void addNewBookingAfterRejected() {
+        final BookingDto bookingDto1 = bookingService.addNewBooking(booker.getId(), newBookingDto);
+        bookingService.updateBooking(owner.getId(), bookingDto1.getId(), false);
+        final BookingDto bookingDto2 = bookingService.addNewBooking(booker.getId(), newBookingDto.toBuilder().id(2L).build());
+        assertThrows(BookingConflictException.class,
+                () -> bookingService.updateBooking(owner.getId(), bookingDto1.getId(), true));
+        assertEquals(Status.WAITING, repository.findById(bookingDto2.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void nextFreeSlot() {
+        bookingService.addNewBooking(booker.getId(), newBookingDto);
+        bookingService.addNewBooking(booker.getId(), newBookingDto.toBuilder()
+                .id(2L)
+                .start(newBookingDto.getEnd().plusHours(1))
+                .end(newBookingDto.getEnd().plusHours(2))
+                .build());
+        assertEquals(newBookingDto.getEnd().plusHours(2), bookingIndex.nextFreeSlot(itemDto.getId(),
+                newBookingDto.getStart(), Duration.ofHours(2)));
+        assertEquals(newBookingDto.getEnd(), bookingIndex.nextFreeSlot(itemDto.getId(),
+                newBookingDto.getStart(), Duration.ofHours(1)));
+        assertTrue(bookingIndex.isFree(itemDto.getId(), newBookingDto.getEnd(), newBookingDto.getEnd().plusHours(1)));
+    }
+
     @Test
     void updateBooking() {
         final BookingDto bookingDto1 = bookingService.addNewBooking(booker.getId(), newBookingDto);
@@ -84,6 +173,117 @@ class BookingServiceTest {
                 newBookingDto.getId(), true));
     }
 
+    @Test
+    void addNewBookings() {
+        ItemDto secondItem = itemService.addNewItem(owner.getId(), new ItemDto(0L, "item2", "description", true, 0L, null));
+        // бронирования в будущем проверяются только по индексу, без обращения к базе
+        NewBookingDto future = futureBooking();
+        List<NewBookingDto> batch = List.of(
+                future,
+                future.toBuilder().id(0L).start(future.getEnd()).end(future.getEnd().plusHours(1)).build(),
+                future.toBuilder().id(0L).itemId(secondItem.getId()).build());
+        statistics.clear();
+        List<BookingDto> created = bookingService.addNewBookings(booker.getId(), batch);
+        assertEquals(3, created.size());
+        // пользователь и предметы загружаются одним запросом каждый, id выделяются одним обращением
+        // к последовательности, вставки отправляются одним пакетом
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(batch.size(), statistics.getEntityInsertCount());
+        assertEquals(secondItem.getId(), repository.findById(created.get(2).getId()).orElseThrow().getItem().getId());
+        assertEquals(Status.WAITING, created.get(0).getStatus());
+        assertFalse(bookingIndex.isFree(secondItem.getId(), future.getStart(), future.getEnd()));
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void addNewBookingsWithOverlapInsideBatch() {
+        List<NewBookingDto> batch = List.of(
+                newBookingDto,
+                newBookingDto.toBuilder().id(0L).start(newBookingDto.getStart().plusHours(1)).build());
+        assertThrows(BookingConflictException.class, () -> bookingService.addNewBookings(booker.getId(), batch));
+        assertEquals(0, repository.count());
+        assertTrue(bookingIndex.isFree(itemDto.getId(), newBookingDto.getStart(), newBookingDto.getEnd()));
+    }
+
+    @Test
+    void addNewBookingsInvalid() {
+        NewBookingDto ownItem = newBookingDto.toBuilder().id(0L).build();
+        NewBookingDto missingItem = newBookingDto.toBuilder().id(0L).itemId(99L).build();
+        NewBookingDto wrongTime = newBookingDto.toBuilder().id(0L).end(newBookingDto.getStart().minusHours(1)).build();
+        assertThrows(UserNotFoundException.class, () -> bookingService.addNewBookings(owner.getId(), List.of(ownItem)));
+        assertThrows(ItemNotFoundException.class,
+                () -> bookingService.addNewBookings(booker.getId(), List.of(newBookingDto, missingItem)));
+        assertThrows(ValidationException.class,
+                () -> bookingService.addNewBookings(booker.getId(), List.of(newBookingDto, wrongTime)));
+        NewBookingDto zeroLength = newBookingDto.toBuilder().id(0L).end(newBookingDto.getStart()).build();
+        assertThrows(ValidationException.class,
+                () -> bookingService.addNewBookings(booker.getId(), List.of(zeroLength)));
+        assertThrows(ValidationException.class, () -> bookingService.addNewBooking(booker.getId(), zeroLength));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void updateBookings() {
+        NewBookingDto future = futureBooking();
+        List<BookingDto> created = bookingService.addNewBookings(booker.getId(), List.of(future,
+                future.toBuilder().id(0L).start(future.getEnd()).end(future.getEnd().plusHours(1)).build()));
+        List<Long> ids = List.of(created.get(0).getId(), created.get(1).getId());
+        List<UpdateBookingDto> rejected = bookingService.updateBookings(owner.getId(), ids, false);
+        assertEquals(2, rejected.size());
+        assertEquals(Status.REJECTED, rejected.get(1).getStatus());
+        assertTrue(bookingIndex.isFree(itemDto.getId(), future.getStart(), future.getEnd().plusHours(1)));
+
+        statistics.clear();
+        List<UpdateBookingDto> approved = bookingService.updateBookings(owner.getId(), ids, true);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(ids.size(), statistics.getEntityUpdateCount());
+        assertEquals(Status.APPROVED, approved.get(0).getStatus());
+        assertEquals(Status.APPROVED, repository.findById(ids.get(1)).orElseThrow().getStatus());
+        assertFalse(bookingIndex.isFree(itemDto.getId(), future.getStart(), future.getEnd()));
+    }
+
+    @Test
+    void batchChangesRolledBackKeepIndex() throws Exception {
+        NewBookingDto future = futureBooking();
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.addNewBookings(booker.getId(), List.of(future));
+            status.setRollbackOnly();
+        });
+        assertEquals(0, repository.count());
+        // индекс не изменился, блокировка предмета снята после отката
+        assertTrue(CompletableFuture.supplyAsync(() -> bookingIndex.isFree(itemDto.getId(), future.getStart(),
+                future.getEnd())).get(5, TimeUnit.SECONDS));
+
+        List<Long> ids = ids(bookingService.addNewBookings(booker.getId(), List.of(future)));
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.updateBookings(owner.getId(), ids, false);
+            status.setRollbackOnly();
+        });
+        assertEquals(Status.WAITING, repository.findById(ids.get(0)).orElseThrow().getStatus());
+        assertFalse(bookingIndex.isFree(itemDto.getId(), future.getStart(), future.getEnd()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.updateBookings(owner.getId(), ids, true);
+            status.setRollbackOnly();
+        });
+        assertNull(lastNextIndex.next(itemDto.getId()));
+        bookingService.updateBookings(owner.getId(), ids, true);
+        assertEquals(ids.get(0), lastNextIndex.next(itemDto.getId()).getId());
+    }
+
+    @Test
+    void updateBookingsInvalid() {
+        BookingDto created = bookingService.addNewBooking(booker.getId(), newBookingDto);
+        assertThrows(UserNotFoundException.class,
+                () -> bookingService.updateBookings(booker.getId(), List.of(created.getId()), true));
+        assertThrows(ItemNotFoundException.class,
+                () -> bookingService.updateBookings(owner.getId(), List.of(created.getId(), 99L), true));
+        assertEquals(Status.WAITING, repository.findById(created.getId()).orElseThrow().getStatus());
+        bookingService.updateBookings(owner.getId(), List.of(created.getId()), true);
+        assertThrows(ValidationException.class,
+                () -> bookingService.updateBookings(owner.getId(), List.of(created.getId()), false));
+    }
+
     @Test
     void findBooking() {
         final BookingDto bookingDto1 = bookingService.addNewBooking(booker.getId(), newBookingDto);
@@ -99,7 +299,7 @@ class BookingServiceTest {
 
     @Test
     void getAllFromUserByFutureState() {
-        final BookingDto bookingDto1 = bookingService.addNewBooking(booker.getId(), newBookingDto);
+        final BookingDto bookingDto1 = bookingService.addNewBooking(booker.getId(), futureBooking());
         assertEquals(List.of(bookingDto1), bookingService.getAllFromUser(booker.getId(), "FUTURE", 0, 10));
     }
 
@@ -158,6 +358,47 @@ class BookingServiceTest {
         assertEquals(2, bookingService.getAllFromUser(user.getId(), "ALL", 0, 10).size());
     }
 
+    @Test
+    void getAllFromUserWithCursor() {
+        final BookingDto first = bookingService.addNewBooking(booker.getId(), newBookingDto);
+        final BookingDto second = bookingService.addNewBooking(booker.getId(), newBookingDto.toBuilder()
+                .id(2L).start(newBookingDto.getStart().plusDays(1)).end(newBookingDto.getEnd().plusDays(1)).build());
+        final BookingDto third = bookingService.addNewBooking(booker.getId(), newBookingDto.toBuilder()
+                .id(3L).start(newBookingDto.getStart().plusDays(2)).end(newBookingDto.getEnd().plusDays(2)).build());
+        final List<BookingDto> page = bookingService.getAllFromUser(booker.getId(), "ALL", 0, 2);
+        assertEquals(List.of(third, second), page);
+        final BookingDto last = page.get(page.size() - 1);
+        assertEquals(List.of(first), bookingService.getAllFromUser(booker.getId(), "ALL", last.getStart(),
+                last.getId(), 2));
+        assertEquals(List.of(first), bookingService.getAllForItems(owner.getId(), "WAITING", last.getStart(),
+                last.getId(), 2));
+        assertEquals(List.of(), bookingService.getAllFromUser(booker.getId(), "ALL", first.getStart(),
+                first.getId(), 2));
+    }
+
+    @Test
+    void getAllFromUserBeforeStateSweep() {
+        User user = new User(2L, "name", "email@email.com");
+        Item item = new Item(1L, "na", "de", true, user, new ArrayList<>(), null);
+        Booking current = repository.save(new Booking(1L, LocalDateTime.now().minusHours(1).withNano(0),
+                LocalDateTime.now().plusHours(1).withNano(0), item, user, Status.APPROVED));
+        Booking past = repository.save(new Booking(2L, LocalDateTime.now().minusDays(2).withNano(0),
+                LocalDateTime.now().minusDays(1).withNano(0), item, user, Status.APPROVED));
+        // состояния, сохраненные до наступления начала и окончания и еще не обновленные
+        current.setState(State.FUTURE);
+        past.setState(State.CURRENT);
+        repository.saveAll(List.of(current, past));
+
+        assertEquals(0, bookingService.getAllFromUser(user.getId(), "FUTURE", 0, 10).size());
+        assertEquals(List.of(current.getId()), ids(bookingService.getAllFromUser(user.getId(), "CURRENT", 0, 10)));
+        assertEquals(List.of(past.getId()), ids(bookingService.getAllFromUser(user.getId(), "PAST", 0, 10)));
+        stateSweeper.sweep();
+        assertEquals(State.CURRENT, repository.findById(current.getId()).orElseThrow().getState());
+        assertEquals(State.PAST, repository.findById(past.getId()).orElseThrow().getState());
+        assertEquals(List.of(current.getId()), ids(bookingService.getAllFromUser(user.getId(), "CURRENT", 0, 10)));
+        assertEquals(List.of(past.getId()), ids(bookingService.getAllFromUser(user.getId(), "PAST", 0, 10)));
+    }
+
     @Test
     void getAllFromUserInvalid() {
         assertThrows(UserNotFoundException.class, () -> bookingService.getAllFromUser(5L, "ALL", 0, 10));
@@ -201,7 +442,7 @@ class BookingServiceTest {
         User user = new User(2L, "name", "email@email.com");
         Item item = new Item(1L, "na", "de", true, user, new ArrayList<>(), null);
         ItemDto itemDto1 = itemService.addNewItem(owner.getId(), itemDto);
-        final BookingDto bookingDto1 = bookingService.addNewBooking(booker.getId(), newBookingDto);
+        final BookingDto bookingDto1 = bookingService.addNewBooking(booker.getId(), futureBooking());
         assertEquals(List.of(bookingDto1), bookingService.getAllForItems(owner.getId(), "FUTURE", 0, 10));
         assertEquals(List.of(bookingDto1), bookingService.getAllForItems(owner.getId(), "WAITING", 0, 10));
         assertEquals(List.of(bookingDto1), bookingService.getAllForItems(owner.getId(), "ALL", 0, 10));
@@ -232,4 +473,84 @@ class BookingServiceTest {
         assertThrows(ValidationException.class, () -> bookingService.getAllForItems(booker.getId(), "ALL", 0, 10));
         assertThrows(ValidationException.class, () -> bookingService.getAllForItems(owner.getId(), "DONE", 0, 10));
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamAllBookings() {
+        for (long i = 1; i <= 3; i++) {
+            bookingService.addNewBooking(booker.getId(), newBookingDto.toBuilder().id(i)
+                    .start(newBookingDto.getStart().plusDays(i)).end(newBookingDto.getEnd().plusDays(i)).build());
+        }
+        List<BookingDto> fromUser = new ArrayList<>();
+        bookingService.streamAllFromUser(booker.getId(), "ALL", fromUser::add);
+        assertEquals(bookingService.getAllFromUser(booker.getId(), "ALL", 0, 10), fromUser);
+
+        List<BookingDto> forItems = new ArrayList<>();
+        bookingService.streamAllForItems(owner.getId(), "WAITING", forItems::add);
+        assertEquals(bookingService.getAllForItems(owner.getId(), "WAITING", 0, 10), forItems);
+        assertEquals(3, forItems.size());
+
+        assertThrows(UserNotFoundException.class, () -> bookingService.streamAllFromUser(5L, "ALL", fromUser::add));
+        assertThrows(ValidationException.class, () -> bookingService.streamAllFromUser(booker.getId(), "DONE",
+                fromUser::add));
+        assertThrows(ValidationException.class, () -> bookingService.streamAllForItems(booker.getId(), "ALL",
+                forItems::add));
+    }
+
+    @Test
+    void bookingListingsUseSingleStatement() {
+        List<UserDto> bookers = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            UserDto itemOwner = i == 1 ? owner : userService.addNewUser(new UserDto(0L, "owner " + i, "owner" + i + "@gmail.com"));
+            bookers.add(i == 1 ? booker : userService.addNewUser(new UserDto(0L, "booker " + i, "booker" + i + "@gmail.com")));
+            for (long j = 1; j <= 2; j++) {
+                ItemDto item = itemService.addNewItem(itemOwner.getId(), new ItemDto(0L, "item " + i + j, "description", true, 0L, null));
+                for (UserDto user : bookers) {
+                    LocalDateTime start = LocalDateTime.now().plusDays(user.getId() * 10).withNano(0);
+                    bookingService.addNewBooking(user.getId(), new NewBookingDto(0L, item.getId(), start, start.plusDays(1)));
+                }
+            }
+        }
+        Pageable page = PageRequest.of(0, 10);
+        LocalDateTime now = LocalDateTime.now();
+        StateFilter all = StateFilter.of("ALL", now);
+        Booking cursor = repository.findByItemOwnerId(owner.getId(), all, page).getContent().get(0);
+
+        assertSingleStatement(() -> repository.findDtoByBookerId(booker.getId(), all, page).getContent());
+        assertSingleStatement(() -> repository.findDtoByBookerId(booker.getId(), StateFilter.of("WAITING", now), page)
+                .getContent());
+        assertSingleStatement(() -> repository.findDtoByBookerId(booker.getId(), StateFilter.of("FUTURE", now), page)
+                .getContent());
+        assertSingleStatement(() -> repository.findDtoByBookerIdBeforeCursor(booker.getId(), all,
+                LocalDateTime.now().plusYears(1), Long.MAX_VALUE, page).getContent());
+        assertSingleStatement(() -> toDto(repository.findByItemOwnerId(owner.getId(), all, page)));
+        assertSingleStatement(() -> toDto(repository.findByItemOwnerId(owner.getId(), StateFilter.of("WAITING", now),
+                page)));
+        assertSingleStatement(() -> toDto(repository.findByItemOwnerId(owner.getId(), StateFilter.of("FUTURE", now),
+                page)));
+        assertSingleStatement(() -> toDto(repository.findByItemOwnerIdBeforeCursor(owner.getId(), all,
+                LocalDateTime.now().plusYears(1), Long.MAX_VALUE, page)));
+
+        statistics.clear();
+        BookingMapper.toBookingDto(repository.findById(cursor.getId()).orElseThrow());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void assertSingleStatement(Supplier<List<BookingDto>> listing) {
+        statistics.clear();
+        assertFalse(listing.get().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+
+    private List<BookingDto> toDto(Slice<Booking> bookings) {
+        return BookingMapper.toBookingDto(bookings.getContent());
+    }
+
+    private NewBookingDto futureBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        return newBookingDto.toBuilder().start(start).end(start.plusHours(5)).build();
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.LastNextBookingDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LastNextBookingIndexTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final BookingRepository repository = mock(BookingRepository.class);
+    private LastNextBookingIndex index;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        index = new LastNextBookingIndex(repository, new BookingStateClassifier(clock));
+        now = LocalDateTime.now(clock);
+    }
+
+    @Test
+    void lastAndNextIgnoreCurrentBooking() {
+        index.add(booking(1, now.minusHours(5), now.minusHours(4)));
+        index.add(booking(2, now.minusHours(3), now.minusHours(2)));
+        index.add(booking(3, now.minusHours(1), now.plusHours(1)));
+        index.add(booking(4, now.plusHours(3), now.plusHours(4)));
+        index.add(booking(5, now.plusHours(2), now.plusHours(3)));
+
+        assertEquals(new LastNextBookingDto(2, 10), index.last(1));
+        assertEquals(new LastNextBookingDto(5, 10), index.next(1));
+        assertNull(index.last(2));
+        assertNull(index.next(2));
+    }
+
+    @Test
+    void rollsForwardWhenBookingsEnd() {
+        index.add(booking(1, now.minusHours(1), now.plusHours(1)));
+        index.add(booking(2, now.plusHours(2), now.plusHours(3)));
+        assertNull(index.last(1));
+
+        clock.advance(Duration.ofMinutes(90));
+        assertEquals(new LastNextBookingDto(1, 10), index.last(1));
+        assertEquals(new LastNextBookingDto(2, 10), index.next(1));
+
+        clock.advance(Duration.ofHours(2));
+        index.rollForward(LocalDateTime.now(clock));
+        assertEquals(new LastNextBookingDto(2, 10), index.last(1));
+        assertNull(index.next(1));
+    }
+
+    @Test
+    void removeReloadsLastFromRepository() {
+        Booking earlier = booking(1, now.minusHours(5), now.minusHours(4));
+        Booking later = booking(2, now.minusHours(3), now.minusHours(2));
+        Booking next = booking(3, now.plusHours(1), now.plusHours(2));
+        index.add(earlier);
+        index.add(later);
+        index.add(next);
+        when(repository.findByItemIdAndStatusAndEndBeforeOrderByEndDesc(anyLong(), eq(Status.APPROVED), any(), any()))
+                .thenReturn(List.of(earlier));
+
+        index.remove(later);
+        index.remove(next);
+        assertEquals(new LastNextBookingDto(1, 10), index.last(1));
+        assertNull(index.next(1));
+    }
+
+    @Test
+    void warmUpLoadsApprovedBookings() {
+        when(repository.findLastByStatusAndEndBefore(eq(Status.APPROVED), any()))
+                .thenReturn(List.of(booking(1, now.minusHours(3), now.minusHours(2))));
+        when(repository.findByStatusInAndEndAfter(eq(List.of(Status.APPROVED)), any()))
+                .thenReturn(List.of(booking(2, now.plusHours(1), now.plusHours(2))));
+
+        index.warmUp();
+        assertEquals(new LastNextBookingDto(1, 10), index.last(1));
+        assertEquals(new LastNextBookingDto(2, 10), index.next(1));
+    }
+
+    private static Booking booking(long id, LocalDateTime start, LocalDateTime end) {
+        Item item = new Item();
+        item.setId(1);
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(User.builder().id(10).build())
+                .start(start)
+                .end(end)
+                .status(Status.APPROVED)
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserLookupCache;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LookupCacheTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final LookupCache<User> cache = new UserLookupCache(repository, new LookupCacheProperties(),
+            Optional.empty(), new SimpleMeterRegistry());
+
+    @Test
+    void errorDuringLoadReachesWaitingThreads() throws Exception {
+        User user = User.builder().id(1).name("user").email("user@mail.ru").build();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch waiting = new CountDownLatch(1);
+        when(repository.findById(1L))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    assertTrue(waiting.await(5, TimeUnit.SECONDS));
+                    // ожидающий поток успевает подписаться на загрузку
+                    Thread.sleep(100);
+                    throw new LinkageError("load failed");
+                })
+                .thenReturn(Optional.of(user));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CompletableFuture<Optional<User>> loader = CompletableFuture.supplyAsync(() -> cache.findById(1L), executor);
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Optional<User>> waiter = CompletableFuture.supplyAsync(() -> {
+            waiting.countDown();
+            return cache.findById(1L);
+        }, executor);
+
+        ExecutionException loaderError = assertThrows(ExecutionException.class, () -> loader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(LinkageError.class, loaderError.getCause());
+        ExecutionException waiterError = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(LinkageError.class, waiterError.getCause());
+        assertEquals(Optional.of(user), cache.findById(1L));
+        executor.shutdown();
+    }
+
+    @Test
+    void evictInsideTransactionAppliedAfterCommit() {
+        User user = User.builder().id(1).name("user").email("user@mail.ru").build();
+        User renamed = User.builder().id(1).name("renamed").email("user@mail.ru").build();
+        when(repository.findById(1L)).thenReturn(Optional.of(user), Optional.of(renamed));
+        assertEquals(Optional.of(user), cache.findById(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(1L);
+            assertEquals(Optional.of(user), cache.findById(1L));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(Optional.of(renamed), cache.findById(1L));
+    }
+}
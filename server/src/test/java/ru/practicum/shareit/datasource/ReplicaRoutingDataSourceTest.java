@@ -0,0 +1,124 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String DATABASE = "SELECT DATABASE()";
+
+    private final MutableClock clock = new MutableClock();
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readTransaction;
+    private PrimaryReads primaryReads;
+
+    @BeforeEach
+    void setUp() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(new RecentWriters(clock, Duration.ofSeconds(5)));
+        DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary");
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Route.PRIMARY, primary,
+                ReplicaRoutingDataSource.Route.REPLICA, new DriverManagerDataSource("jdbc:h2:mem:replica")
+        ));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        primaryReads = new PrimaryReads(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestUser.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertEquals("REPLICA", readTransaction.execute(status -> database()));
+        assertEquals("PRIMARY", writeTransaction.execute(status -> database()));
+        assertEquals("PRIMARY", database());
+    }
+
+    @Test
+    void recentWriterReadsFromPrimaryUntilWindowExpires() {
+        RequestUser.set(1L);
+        writeTransaction.execute(status -> database());
+        assertEquals("PRIMARY", readTransaction.execute(status -> database()));
+
+        RequestUser.set(2L);
+        assertEquals("REPLICA", readTransaction.execute(status -> database()));
+
+        RequestUser.set(1L);
+        clock.advance(Duration.ofSeconds(6));
+        assertEquals("REPLICA", readTransaction.execute(status -> database()));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinUserToPrimary() {
+        RequestUser.set(1L);
+        writeTransaction.execute(status -> {
+            database();
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals("REPLICA", readTransaction.execute(status -> database()));
+    }
+
+    @Test
+    void primaryReadsInsideReadOnlyTransaction() {
+        assertEquals(List.of("REPLICA", "PRIMARY", "REPLICA"), readTransaction.execute(status -> List.of(
+                database(), primaryReads.read(this::database), database())));
+        RequestUser.set(1L);
+        assertEquals("PRIMARY", primaryReads.read(this::database));
+        assertEquals("REPLICA", readTransaction.execute(status -> database()));
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject(DATABASE, String.class);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
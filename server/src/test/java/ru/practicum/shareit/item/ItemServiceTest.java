@@ -6,20 +6,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.LastNextBookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.requests.ItemRequestService;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -80,6 +88,35 @@ public class ItemServiceTest {
         assertEquals(2, itemService.getItems(userDto.getId(), 0, 10).size());
     }
 
+    @Test
+    void testStreamItems() {
+        final UserDto userDto = userService.addNewUser(user1);
+        for (int i = 1; i <= 150; i++) {
+            itemService.addNewItem(userDto.getId(), item2.toBuilder().name("item " + i).build());
+        }
+        final List<ItemOwnerDto> streamed = new ArrayList<>();
+        itemService.streamItems(userDto.getId(), streamed::add);
+        assertEquals(150, streamed.size());
+        assertEquals(itemService.getItems(userDto.getId(), 0, 200), streamed);
+        assertThrows(UserNotFoundException.class, () -> itemService.streamItems(99L, streamed::add));
+    }
+
+    @Test
+    void testFindItemsByOwnerIdWithBookings() {
+        final UserDto owner = userService.addNewUser(user1);
+        final UserDto booker = userService.addNewUser(user1.toBuilder().name("booker").email("user2@gmail.com").build());
+        final ItemDto itemDto = itemService.addNewItem(owner.getId(), item1);
+        final ItemDto itemDto2 = itemService.addNewItem(owner.getId(), item2);
+        bookingService.addNewBooking(booker.getId(), booking);
+        bookingService.addNewBooking(booker.getId(), booking.toBuilder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build());
+        assertEquals(List.of(itemService.findById(owner.getId(), itemDto.getId()),
+                        itemService.findById(owner.getId(), itemDto2.getId())),
+                itemService.getItems(owner.getId(), 0, 10));
+    }
+
     @Test
     void testDeleteItemByOwner() {
         final UserDto userDto = userService.addNewUser(user1);
@@ -89,6 +126,17 @@ public class ItemServiceTest {
         assertEquals(1, itemService.getItems(userDto.getId(), 0, 10).size());
     }
 
+    @Test
+    void testFindByIdAfterUpdateAndDelete() {
+        final UserDto userDto = userService.addNewUser(user1);
+        final ItemDto itemDto = itemService.addNewItem(userDto.getId(), item1);
+        assertEquals("item1", itemService.findById(userDto.getId(), itemDto.getId()).getName());
+        itemService.updateItem(userDto.getId(), itemDto.getId(), ItemDto.builder().name("renamed").build());
+        assertEquals("renamed", itemService.findById(userDto.getId(), itemDto.getId()).getName());
+        itemService.deleteItem(userDto.getId(), itemDto.getId());
+        assertThrows(ItemNotFoundException.class, () -> itemService.findById(userDto.getId(), itemDto.getId()));
+    }
+
     @Test
     void testSearchItemByDescription() {
         final UserDto userDto = userService.addNewUser(user1);
@@ -98,6 +146,33 @@ public class ItemServiceTest {
         assertEquals(List.of(itemDto1), itemService.searchByDescription("ALAx", 0, 10));
     }
 
+    @Test
+    void testSearchItemByShortText() {
+        final UserDto userDto = userService.addNewUser(user1);
+        final ItemDto itemDto = itemService.addNewItem(userDto.getId(), item1.toBuilder().name("Ящик").build());
+        final ItemDto itemDto1 = itemService.addNewItem(userDto.getId(), item2.toBuilder().name("ящ").build());
+        assertEquals(List.of(itemDto1, itemDto), itemService.searchByDescription("ЯЩ", 0, 10));
+        assertEquals(List.of(itemDto), itemService.searchByDescription("ик", 0, 10));
+        assertEquals(List.of(itemDto), itemService.searchByDescription("ящ", 1, 1));
+        assertEquals(List.of(), itemService.searchByDescription("щю", 0, 10));
+    }
+
+    @Test
+    void testSearchItemIndexUpdates() {
+        final UserDto userDto = userService.addNewUser(user1);
+        final ItemDto itemDto = itemService.addNewItem(userDto.getId(), item1.toBuilder().name("дрель").available(false).build());
+        assertEquals(List.of(), itemService.searchByDescription("ДРЕЛ", 0, 10));
+        final ItemDto updated = itemService.updateItem(userDto.getId(), itemDto.getId(),
+                ItemDto.builder().available(true).description("ударная").build());
+        assertEquals(List.of(updated), itemService.searchByDescription("ДРЕЛ", 0, 10));
+        assertEquals(List.of(updated), itemService.searchByDescription("удар", 0, 10));
+        final ItemDto itemDto2 = itemService.addNewItem(userDto.getId(), item2.toBuilder().description("дрель").build());
+        assertEquals(List.of(updated, itemDto2), itemService.searchByDescription("дрель", 0, 10));
+        assertEquals(List.of(itemDto2), itemService.searchByDescription("дрель", 1, 1));
+        itemService.deleteItem(userDto.getId(), itemDto.getId());
+        assertEquals(List.of(itemDto2), itemService.searchByDescription("дрель", 0, 10));
+    }
+
     @Test
     void testAddComment() throws InterruptedException {
         final UserDto owner = userService.addNewUser(user1);
@@ -111,6 +186,31 @@ public class ItemServiceTest {
         assertEquals(itemService.getComments(itemDto.getId()), List.of(commentDto));
     }
 
+    @Test
+    void testLastAndNextApprovedBookings() {
+        final UserDto owner = userService.addNewUser(user1);
+        final UserDto booker = userService.addNewUser(user1.toBuilder().name("booker").email("user2@gmail.com").build());
+        final ItemDto itemDto = itemService.addNewItem(owner.getId(), item1);
+        final LocalDateTime now = LocalDateTime.now();
+        final BookingDto past = bookingService.addNewBooking(booker.getId(), booking.toBuilder()
+                .id(0L).start(now.minusDays(3)).end(now.minusDays(2)).build());
+        final BookingDto later = bookingService.addNewBooking(booker.getId(), booking.toBuilder()
+                .id(0L).start(now.plusDays(3)).end(now.plusDays(4)).build());
+        final BookingDto next = bookingService.addNewBooking(booker.getId(), booking.toBuilder()
+                .id(0L).start(now.plusDays(2)).end(now.plusDays(3)).build());
+        bookingService.addNewBooking(booker.getId(), booking.toBuilder()
+                .id(0L).start(now.plusDays(1)).end(now.plusDays(2)).build());
+        for (BookingDto approved : List.of(past, later, next)) {
+            bookingService.updateBooking(owner.getId(), approved.getId(), true);
+        }
+
+        final ItemOwnerDto ownerView = itemService.findById(owner.getId(), itemDto.getId());
+        assertEquals(new LastNextBookingDto(past.getId(), booker.getId()), ownerView.getLastBooking());
+        assertEquals(new LastNextBookingDto(next.getId(), booker.getId()), ownerView.getNextBooking());
+        assertEquals(List.of(ownerView), itemService.getItems(owner.getId(), 0, 10));
+        assertNull(itemService.findById(booker.getId(), itemDto.getId()).getNextBooking());
+    }
+
     @Test
     void testGetItemsForRequest() {
         final UserDto userDto = userService.addNewUser(user1);
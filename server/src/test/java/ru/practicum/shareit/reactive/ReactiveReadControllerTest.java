@@ -0,0 +1,168 @@
+package ru.practicum.shareit.reactive;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.requests.ItemRequestService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.reactive.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:reactive",
+        "shareit.reactive.url=r2dbc:h2:mem:///reactive",
+        "shareit.reactive.username=test",
+        "shareit.reactive.password=test"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class ReactiveReadControllerTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService requestService;
+
+    @Autowired
+    ReactiveReadControllerTest(MockMvc mvc, ObjectMapper mapper, UserService userService, ItemService itemService,
+                               BookingService bookingService, ItemRequestService requestService) {
+        this.mvc = mvc;
+        this.mapper = mapper;
+        this.userService = userService;
+        this.itemService = itemService;
+        this.bookingService = bookingService;
+        this.requestService = requestService;
+    }
+
+    private UserDto owner;
+    private UserDto booker;
+    private UserDto stranger;
+
+    @BeforeEach
+    void setUp() {
+        String run = String.valueOf(System.nanoTime());
+        owner = userService.addNewUser(new UserDto(0L, "owner", "owner" + run + "@gmail.com"));
+        booker = userService.addNewUser(new UserDto(0L, "booker", "booker" + run + "@gmail.com"));
+        stranger = userService.addNewUser(new UserDto(0L, "stranger", "stranger" + run + "@gmail.com"));
+        ItemRequestDto request = requestService.addNewItemRequest(booker.getId(),
+                new ItemRequestDto(0L, "need a drill", booker.getId(), LocalDateTime.now()));
+        requestService.addNewItemRequest(booker.getId(),
+                new ItemRequestDto(0L, "need a saw", booker.getId(), LocalDateTime.now()));
+        ItemDto drill = itemService.addNewItem(owner.getId(),
+                new ItemDto(0L, "drill " + run, "cordless drill", true, owner.getId(), request.getId()));
+        ItemDto hammer = itemService.addNewItem(owner.getId(),
+                new ItemDto(0L, "hammer " + run, "drill hammer", true, owner.getId(), null));
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            long itemId = i % 2 == 0 ? drill.getId() : hammer.getId();
+            bookings.add(bookingService.addNewBooking(booker.getId(), new NewBookingDto(0L, itemId,
+                    now.plusDays(i * 2L + 1), now.plusDays(i * 2L + 2))));
+        }
+        bookings.add(bookingService.addNewBooking(booker.getId(), new NewBookingDto(0L, drill.getId(),
+                now.minusDays(3), now.minusDays(2))));
+        bookingService.updateBooking(owner.getId(), bookings.get(0).getId(), true);
+        bookingService.updateBooking(owner.getId(), bookings.get(1).getId(), false);
+    }
+
+    @Test
+    void ndjsonMatchesJsonResponses() throws Exception {
+        assertSameElements(get("/items/search").param("text", "drill"));
+        assertSameElements(get("/items/search").param("text", "drill").param("from", "1").param("size", "1"));
+        for (String state : List.of("ALL", "FUTURE", "PAST", "WAITING", "REJECTED", "CURRENT")) {
+            assertSameElements(get("/bookings").header(HEADER, booker.getId()).param("state", state));
+            assertSameElements(get("/bookings/owner").header(HEADER, owner.getId()).param("state", state));
+        }
+        assertSameElements(get("/bookings").header(HEADER, booker.getId()).param("from", "1").param("size", "2"));
+        assertSameElements(get("/requests/all").header(HEADER, owner.getId()));
+        assertSameElements(get("/requests/all").header(HEADER, stranger.getId()).param("size", "1"));
+    }
+
+    @Test
+    void ndjsonResponseIsNotBufferedForEtag() throws Exception {
+        MvcResult result = mvc.perform(get("/bookings").header(HEADER, booker.getId())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void ndjsonErrors() throws Exception {
+        mvc.perform(get("/bookings").header(HEADER, 100_000L).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/bookings").header(HEADER, booker.getId()).param("state", "UNSUPPORTED")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest());
+        MvcResult result = mvc.perform(get("/bookings/owner").header(HEADER, booker.getId())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Элементы NDJSON-ответа совпадают с массивом JSON-ответа блокирующего эндпоинта
+     */
+    private void assertSameElements(MockHttpServletRequestBuilder builder) throws Exception {
+        String json = mvc.perform(builder.accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<JsonNode> expected = mapper.readValue(json, new TypeReference<>() {
+        });
+
+        MvcResult result = mvc.perform(builder.accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<JsonNode> actual = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            if (!line.isBlank()) {
+                actual.add(mapper.readTree(line));
+            }
+        }
+        assertEquals(expected, actual);
+    }
+}
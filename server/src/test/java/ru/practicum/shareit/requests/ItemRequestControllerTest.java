@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
 
@@ -15,13 +16,17 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -125,4 +130,26 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.created", is(answersDto.getCreated().toString())))
                 .andExpect(jsonPath("$.items", hasSize(0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamAllRequests() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ItemRequestWithAnswersDto> consumer = invocation.getArgument(1);
+            consumer.accept(answersDto);
+            consumer.accept(answersDto);
+            return null;
+        }).when(service).streamAllRequests(anyLong(), any());
+
+        MvcResult result = mvc.perform(get("/requests/all/stream")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header(HEADER, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = mapper.writeValueAsString(answersDto);
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+}
@@ -1,34 +1,46 @@
 package ru.practicum.shareit.requests;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class ItemRequestServiceTest {
 
     private final ItemRequestService requestService;
     private final ItemRequestRepository repository;
     private final UserService userService;
+    private final ItemService itemService;
+    private final Statistics statistics;
 
     @Autowired
-    ItemRequestServiceTest(ItemRequestService requestService, ItemRequestRepository repository, UserService userService) {
+    ItemRequestServiceTest(ItemRequestService requestService, ItemRequestRepository repository, UserService userService,
+                           ItemService itemService, EntityManagerFactory entityManagerFactory) {
         this.requestService = requestService;
         this.repository = repository;
         this.userService = userService;
+        this.itemService = itemService;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
     }
 
     private ItemRequestDto requestDto;
@@ -91,4 +103,78 @@ class ItemRequestServiceTest {
     void getRequestWithNotExistingId() {
         assertThrows(NoSuchElementException.class, () -> requestService.getRequest(1L, 3L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRequestsStatementCountDoesNotDependOnPageSize() {
+        UserDto owner = userService.addNewUser(new UserDto(2L, "owner", "owner@gmail.com"));
+        UserDto reader = userService.addNewUser(new UserDto(3L, "reader", "reader@gmail.com"));
+        UserDto single = userService.addNewUser(new UserDto(4L, "single", "single@gmail.com"));
+        requestService.addNewItemRequest(single.getId(),
+                new ItemRequestDto(0L, "single request", single.getId(), LocalDateTime.now()));
+        for (long i = 1; i <= 5; i++) {
+            UserDto requester = userService.addNewUser(new UserDto(0L, "requester " + i, "requester" + i + "@gmail.com"));
+            ItemRequestDto request = requestService.addNewItemRequest(userDto.getId(),
+                    new ItemRequestDto(0L, "request " + i, userDto.getId(), LocalDateTime.now().plusMinutes(i)));
+            requestService.addNewItemRequest(requester.getId(),
+                    new ItemRequestDto(0L, "other request " + i, requester.getId(), LocalDateTime.now().plusMinutes(i)));
+            itemService.addNewItem(owner.getId(), new ItemDto(0L, "item " + i, "answer", true, 0L, request.getId()));
+            itemService.addNewItem(reader.getId(), new ItemDto(0L, "item " + i, "answer", true, 0L, request.getId()));
+        }
+
+        long onePage = statementCount(() -> assertEquals(1, requestService.getAllRequests(reader.getId(), 0, 1).size()));
+        long bigPage = statementCount(() -> assertEquals(10, requestService.getAllRequests(reader.getId(), 0, 10).size()));
+        assertEquals(onePage, bigPage);
+
+        long oneRequest = statementCount(() -> assertEquals(1, requestService.getOwnRequests(single.getId()).size()));
+        long manyRequests = statementCount(() -> assertEquals(5, requestService.getOwnRequests(userDto.getId()).size()));
+        assertEquals(oneRequest, manyRequests);
+        assertEquals(2, requestService.getOwnRequests(userDto.getId()).get(0).getItems().size());
+    }
+
+    private long statementCount(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void getAllRequestsSkipsOwnRequestsInDatabase() {
+        UserDto other = userService.addNewUser(new UserDto(2L, "other", "other@gmail.com"));
+        for (long i = 1; i <= 3; i++) {
+            requestService.addNewItemRequest(userDto.getId(),
+                    new ItemRequestDto(0L, "own " + i, userDto.getId(), LocalDateTime.now().plusMinutes(i)));
+            requestService.addNewItemRequest(other.getId(),
+                    new ItemRequestDto(0L, "other " + i, other.getId(), LocalDateTime.now().plusMinutes(i)));
+        }
+
+        List<ItemRequestWithAnswersDto> page = requestService.getAllRequests(userDto.getId(), 0, 2);
+        assertEquals(List.of("other 3", "other 2"), descriptions(page));
+
+        ItemRequestWithAnswersDto last = page.get(1);
+        List<ItemRequestWithAnswersDto> next = requestService.getAllRequests(userDto.getId(), last.getCreated(),
+                last.getId(), 2);
+        assertEquals(List.of("other 1"), descriptions(next));
+    }
+
+    @Test
+    void streamAllRequests() {
+        UserDto other = userService.addNewUser(new UserDto(2L, "other", "other@gmail.com"));
+        for (long i = 1; i <= 150; i++) {
+            requestService.addNewItemRequest(other.getId(),
+                    new ItemRequestDto(0L, "other " + i, other.getId(), LocalDateTime.now().plusMinutes(i)));
+        }
+        requestService.addNewItemRequest(userDto.getId(), requestDto);
+
+        List<ItemRequestWithAnswersDto> streamed = new ArrayList<>();
+        requestService.streamAllRequests(userDto.getId(), streamed::add);
+        assertEquals(150, streamed.size());
+        assertEquals("other 150", streamed.get(0).getDescription());
+        assertEquals("other 1", streamed.get(149).getDescription());
+    }
+
+    private List<String> descriptions(List<ItemRequestWithAnswersDto> requests) {
+        return requests.stream()
+                .map(ItemRequestWithAnswersDto::getDescription)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.threads;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Поиск мест, где виртуальный поток закрепляется за потоком-носителем: блокирующий вызов под монитором.
+ * Основные сценарии чтения выполняются в виртуальных потоках с конкуренцией за пул соединений, события
+ * jdk.VirtualThreadPinned записываются через JFR. Закрепления внутри драйвера базы выводятся в лог,
+ * остальные закрепления на стеке с кодом приложения считаются ошибкой. На JDK до 21 тест пропускается
+ */
+@Slf4j
+@SpringBootTest
+@DirtiesContext
+class VirtualThreadPinningTest {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "ru.practicum.shareit.";
+    private static final List<String> DRIVER_PACKAGES = List.of("org.h2.", "org.postgresql.");
+    private static final int USERS = 50;
+    private static final int TASKS = 1000;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void readPathsDoNotPinVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "Виртуальные потоки недоступны в JDK " + Runtime.version());
+
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(userService.addNewUser(UserDto.builder().name("user" + i).email("user" + i + "@mail.ru")
+                    .build()).getId());
+        }
+        long ownerId = userIds.get(0);
+        long bookerId = userIds.get(1);
+        ItemDto item = itemService.addNewItem(ownerId, ItemDto.builder().name("Дрель").description("Простая дрель")
+                .available(true).build());
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> bookingIds = bookingService.addNewBookings(bookerId, List.of(
+                        NewBookingDto.builder().itemId(item.getId()).start(now.minusDays(2)).end(now.minusDays(1)).build(),
+                        NewBookingDto.builder().itemId(item.getId()).start(now.plusDays(1)).end(now.plusDays(2)).build()))
+                .stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+        bookingService.updateBookings(ownerId, bookingIds, true);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                // одновременные промахи кэша по одним и тем же пользователям
+                long userId = userIds.get(i % USERS);
+                futures.add(executor.submit(() -> {
+                    userService.findById(userId);
+                    itemService.findById(ownerId, item.getId());
+                    itemService.getItems(ownerId, 0, 10);
+                    bookingService.getAllFromUser(bookerId, "ALL", 0, 10);
+                    bookingService.getAllForItems(ownerId, "FUTURE", 0, 10);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+            recording.stop();
+
+            Path file = Files.createTempFile("pinning", ".jfr");
+            try {
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        Map<String, Integer> hotSpots = new TreeMap<>();
+        List<String> applicationPinning = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (!event.getEventType().getName().equals(PINNED_EVENT) || event.getStackTrace() == null) {
+                continue;
+            }
+            List<String> frames = event.getStackTrace().getFrames().stream()
+                    .map(VirtualThreadPinningTest::frame)
+                    .collect(Collectors.toList());
+            hotSpots.merge(firstNonJdkFrame(frames), 1, Integer::sum);
+            boolean application = frames.stream().anyMatch(frame -> frame.startsWith(APPLICATION_PACKAGE));
+            boolean driver = frames.stream().anyMatch(frame -> DRIVER_PACKAGES.stream().anyMatch(frame::startsWith));
+            if (application && !driver) {
+                applicationPinning.add(String.join("\n\t", frames));
+            }
+        }
+        log.info("Virtual thread pinning hot spots: {}", hotSpots);
+        assertTrue(applicationPinning.isEmpty(), "Закрепление виртуальных потоков в коде приложения:\n"
+                + String.join("\n\n", applicationPinning));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String firstNonJdkFrame(List<String> frames) {
+        return frames.stream()
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse(frames.isEmpty() ? "unknown" : frames.get(0));
+    }
+}
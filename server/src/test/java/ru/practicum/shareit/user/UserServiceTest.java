@@ -1,26 +1,31 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class UserServiceTest {
 
 	private final UserService userService;
+	private final MeterRegistry meterRegistry;
 
 	@Autowired
-	UserServiceTest(UserService userService) {
+	UserServiceTest(UserService userService, MeterRegistry meterRegistry) {
 		this.userService = userService;
+		this.meterRegistry = meterRegistry;
 	}
 
 	private UserDto user1;
@@ -67,4 +72,23 @@ class UserServiceTest {
 		userService.deleteUser(user1.getId());
 		assertEquals(List.of(user), userService.getUsers());
 	}
+
+	@Test
+	void testFindByIdCachedUntilUpdateAndDelete() {
+		final UserDto userDto = userService.addNewUser(user1);
+		userService.findById(userDto.getId());
+		userService.findById(userDto.getId());
+		assertEquals(1, cacheGets("miss"));
+		assertEquals(1, cacheGets("hit"));
+		userService.updateUser(user2, userDto.getId());
+		assertEquals(user2.getName(), userService.findById(userDto.getId()).getName());
+		assertEquals(2, cacheGets("miss"));
+		userService.deleteUser(userDto.getId());
+		assertThrows(UserNotFoundException.class, () -> userService.findById(userDto.getId()));
+	}
+
+	private double cacheGets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "shareit.users").tag("result", result)
+				.functionCounter().count();
+	}
 }